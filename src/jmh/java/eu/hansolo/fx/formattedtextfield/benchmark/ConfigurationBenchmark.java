@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield.benchmark;
+
+import eu.hansolo.fx.formattedtextfield.Format;
+import eu.hansolo.fx.formattedtextfield.FormattedTextField;
+import eu.hansolo.fx.formattedtextfield.StandardType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Reconfiguration and value driven text updates of an existing field.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationBenchmark {
+    private static final Locale[]     LOCALES = { Locale.US, Locale.GERMANY, Locale.FRANCE, Locale.forLanguageTag("de-CH") };
+    private static final BigDecimal[] VALUES  = { new BigDecimal("1234.56"), new BigDecimal("-0.5"), BigDecimal.ONE, new BigDecimal("987654.3") };
+    @Param({ "EURO", "MONTHS", "PERCENTAGE" })
+    private StandardType       type;
+    private FormattedTextField field;
+    private int                index;
+
+
+    @Setup public void setup() {
+        HeadlessFx.start();
+        field = new FormattedTextField(new Format(type), new BigDecimal("1234.56"), 10, 2, Locale.US, true);
+    }
+
+    @Benchmark public String setDecimals() {
+        field.setDecimals(2 + (index++ & 1));
+        return field.getText();
+    }
+
+    @Benchmark public String setLocale() {
+        field.setLocale(LOCALES[index++ & 3]);
+        return field.getText();
+    }
+
+    @Benchmark public String setValue() {
+        field.setValue(VALUES[index++ & 3]);
+        return field.getText();
+    }
+
+    @Benchmark public String setValueFixedPoint() {
+        if (!field.isFixedPoint()) { field.setDecimals(10, 2); field.setFixedPoint(true); }
+        field.setUnscaledValue(index++ * 7919L);
+        return field.getText();
+    }
+}
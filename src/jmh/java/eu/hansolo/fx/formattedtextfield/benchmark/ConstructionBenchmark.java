@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield.benchmark;
+
+import eu.hansolo.fx.formattedtextfield.Format;
+import eu.hansolo.fx.formattedtextfield.FormattedTextField;
+import eu.hansolo.fx.formattedtextfield.FormattedTextFieldBuilder;
+import eu.hansolo.fx.formattedtextfield.StandardType;
+import eu.hansolo.fx.formattedtextfield.UnitPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Construction cost across the different constructor overloads and the
+ * builder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    @Setup public void setup() {
+        HeadlessFx.start();
+    }
+
+    @Benchmark public FormattedTextField decimalsOnly() {
+        return new FormattedTextField(new Format(StandardType.NONE), 2);
+    }
+
+    @Benchmark public FormattedTextField localeAndNegative() {
+        return new FormattedTextField(new Format(StandardType.EURO), 5, 2, Locale.GERMANY, true);
+    }
+
+    @Benchmark public FormattedTextField doubleValue() {
+        return new FormattedTextField(new Format(StandardType.KM), 1234.5, 2, Locale.US);
+    }
+
+    @Benchmark public FormattedTextField longValue() {
+        return new FormattedTextField(new Format(StandardType.MONTHS), 3L);
+    }
+
+    @Benchmark public FormattedTextField stringValue() {
+        return new FormattedTextField(new Format(StandardType.YEARS), "12");
+    }
+
+    @Benchmark public FormattedTextField bigIntegerValue() {
+        return new FormattedTextField(new Format(StandardType.MM), BigInteger.TEN, 0);
+    }
+
+    @Benchmark public FormattedTextField bigDecimalValue() {
+        return new FormattedTextField(new Format(StandardType.DOLLAR), new BigDecimal("99.95"), 5, 2, Locale.US, true);
+    }
+
+    @Benchmark public FormattedTextField builder() {
+        return FormattedTextFieldBuilder.create(StandardType.F)
+                                        .value(2.8)
+                                        .decimals(1)
+                                        .locale(Locale.US)
+                                        .unitPosition(UnitPos.IN_FRONT)
+                                        .build();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield.benchmark;
+
+import eu.hansolo.fx.formattedtextfield.FieldTemplate;
+import eu.hansolo.fx.formattedtextfield.Format;
+import eu.hansolo.fx.formattedtextfield.FormattedTextField;
+import eu.hansolo.fx.formattedtextfield.StandardType;
+import javafx.application.Platform;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+
+/**
+ * Reports the retained heap per FormattedTextField with and without lean mode.
+ * The fields are created like on a large form: a handful of distinct
+ * configurations, every field with its own Format instance and a value.
+ * Run with ./gradlew footprint [-Pfootprint.fields=20000]
+ */
+public final class FieldFootprint {
+    private static final StandardType[] TYPES = { StandardType.EURO, StandardType.KM, StandardType.PERCENTAGE, StandardType.MONTHS };
+
+
+    // ******************** Constructors **************************************
+    private FieldFootprint() {}
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] args) {
+        final int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        HeadlessFx.start();
+
+        // warm up the caches so that only the fields themselves are measured
+        measure(100, false);
+        measure(100, true);
+
+        final long plain = measure(count, false);
+        final long lean  = measure(count, true);
+        System.out.printf("%,d fields%n", count);
+        System.out.printf("default mode: %,d bytes per field%n", plain / count);
+        System.out.printf("lean mode   : %,d bytes per field%n", lean / count);
+        Platform.exit();
+    }
+
+    private static long measure(final int count, final boolean lean) {
+        final FormattedTextField[] fields = new FormattedTextField[count];
+        final long before = usedHeap();
+        for (int i = 0 ; i < count ; i++) {
+            final FieldTemplate template = FieldTemplate.of(new Format(TYPES[i % TYPES.length]), 10, 2, Locale.GERMANY, false);
+            fields[i] = new FormattedTextField(lean ? template.intern() : template);
+            fields[i].setValue(BigDecimal.valueOf(i, 2));
+        }
+        final long after = usedHeap();
+        if (fields[count - 1].getText().isEmpty()) { throw new IllegalStateException(); }
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0 ; i < 5 ; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
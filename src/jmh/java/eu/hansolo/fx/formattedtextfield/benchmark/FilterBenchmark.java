@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield.benchmark;
+
+import eu.hansolo.fx.formattedtextfield.NumericInputValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+
+/**
+ * Cost of the keystroke check done in the TextFormatter filter, compared to
+ * the regular expression that was used before.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+    @Param({ "5", "24" })
+    private int                   predecimals;
+    @Param({ "0", "2", "8" })
+    private int                   decimals;
+    @Param({ "typed", "paste", "rejected" })
+    private String                input;
+    private String                text;
+    private NumericInputValidator validator;
+    private Pattern               pattern;
+
+
+    @Setup public void setup() {
+        final char separator = '.';
+        validator = new NumericInputValidator(predecimals, decimals, true, separator);
+        pattern   = Pattern.compile(regex(predecimals, decimals, separator));
+        switch (input) {
+            case "typed"   : text = "-12"; break;
+            case "paste"   : text = "-" + digits(predecimals) + (decimals > 0 ? separator + digits(decimals) : ""); break;
+            case "rejected":
+            default        : text = digits(predecimals) + "x" + digits(40); break;
+        }
+    }
+
+    @Benchmark public boolean validator() {
+        return validator.isValid(text);
+    }
+
+    @Benchmark public boolean regex() {
+        return pattern.matcher(text).matches();
+    }
+
+
+    private static String regex(final int predecimals, final int decimals, final char separator) {
+        final int digits = predecimals + decimals + 1;
+        final StringBuilder builder = new StringBuilder().append("(?=.*\\d?)(?!(?:\\D*\\d){").append(digits).append(",})[-]?\\d{0,").append(predecimals).append("}");
+        if (decimals > 0) { builder.append("(?:\\").append(separator).append("\\d{0,").append(decimals).append("})?"); }
+        return builder.toString();
+    }
+
+    private static String digits(final int count) {
+        final StringBuilder builder = new StringBuilder(count);
+        for (int i = 0 ; i < count ; i++) { builder.append((char) ('1' + i % 9)); }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield.benchmark;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CountDownLatch;
+
+
+/**
+ * Starts the JavaFX toolkit once per JVM, using the headless Monocle platform
+ * unless another glass platform has been configured.
+ */
+final class HeadlessFx {
+    private static boolean started;
+
+
+    // ******************** Constructors **************************************
+    private HeadlessFx() {}
+
+
+    // ******************** Methods *******************************************
+    static synchronized void start() {
+        if (started) { return; }
+        if (null == System.getProperty("glass.platform")) {
+            System.setProperty("glass.platform", "Monocle");
+            System.setProperty("monocle.platform", "Headless");
+            System.setProperty("prism.order", "sw");
+        }
+        final CountDownLatch latch = new CountDownLatch(1);
+        Platform.startup(latch::countDown);
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Platform.setImplicitExit(false);
+        started = true;
+    }
+}
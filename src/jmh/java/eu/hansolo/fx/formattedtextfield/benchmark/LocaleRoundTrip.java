@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield.benchmark;
+
+import eu.hansolo.fx.formattedtextfield.FieldTemplate;
+import eu.hansolo.fx.formattedtextfield.Format;
+import eu.hansolo.fx.formattedtextfield.FormatEngine;
+import eu.hansolo.fx.formattedtextfield.StandardType;
+import eu.hansolo.fx.formattedtextfield.UnitPos;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormatSymbols;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+
+/**
+ * Checks for every available locale that the text a field renders for a
+ * value parses back to the same value, with native digits, bidi marks and
+ * unit prefixes, and that fixed point mode renders the same text as
+ * DecimalFormat. Exits with 1 if any value fails.
+ * Run with ./gradlew roundTrip
+ */
+public final class LocaleRoundTrip {
+    private static final StandardType[] TYPES    = { StandardType.NONE, StandardType.EURO, StandardType.MONTHS };
+    private static final int[]          DECIMALS = { 0, 2, 5 };
+    private static final int            VALUES   = 200;
+
+
+    // ******************** Constructors **************************************
+    private LocaleRoundTrip() {}
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] args) {
+        final Set<Locale> locales = new LinkedHashSet<>(Arrays.asList(DecimalFormatSymbols.getAvailableLocales()));
+        // locales with native digits that are not part of every runtime's default list
+        for (String tag : new String[] { "ar-EG", "fa-IR", "th-TH-u-nu-thai", "hi-IN-u-nu-deva" }) { locales.add(Locale.forLanguageTag(tag)); }
+
+        final Random random   = new Random(42);
+        long         checked  = 0;
+        long         failures = 0;
+        for (Locale locale : locales) {
+            long localeFailures = 0;
+            for (StandardType type : TYPES) {
+                for (int decimals : DECIMALS) {
+                    for (UnitPos unitPos : UnitPos.values()) {
+                        final FormatEngine  engine   = new FormatEngine(new Format(type), decimals, locale, unitPos, true);
+                        final FieldTemplate template = FieldTemplate.of(new Format(type), 12, decimals, locale, true, unitPos);
+                        for (int i = 0 ; i < VALUES ; i++) {
+                            final BigDecimal value = BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000L, decimals);
+                            final String     text  = engine.format(value);
+                            final String     fixed = engine.format(value.unscaledValue().longValueExact(), decimals, new StringBuilder()).toString();
+                            checked++;
+                            if (!text.equals(fixed) || !roundTrips(engine, template, value, text)) {
+                                if (localeFailures++ < 3) { System.out.printf("%s %s %d %s: %s -> \"%s\" fixed point \"%s\"%n", locale.toLanguageTag(), type, decimals, unitPos, value, text, fixed); }
+                            }
+                        }
+                    }
+                }
+            }
+            failures += localeFailures;
+        }
+        System.out.printf("%,d locales, %,d values, %,d failures%n", locales.size(), checked, failures);
+        if (failures > 0) { System.exit(1); }
+    }
+
+    private static boolean roundTrips(final FormatEngine engine, final FieldTemplate template, final BigDecimal value, final String text) {
+        try {
+            return engine.parse(text).compareTo(value) == 0 &&
+                   template.getParser().parseUnscaled(text, value.scale()) == value.unscaledValue().longValueExact();
+        } catch (ParseException | RuntimeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield.benchmark;
+
+import eu.hansolo.fx.formattedtextfield.Format;
+import eu.hansolo.fx.formattedtextfield.FormattedTextField;
+import eu.hansolo.fx.formattedtextfield.StandardType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * parseAndFormat() as it runs on focus loss, for every StandardType and a
+ * couple of locales.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseAndFormatBenchmark {
+    @Param({ "NONE", "KM", "PERCENTAGE", "YEARS", "MONTHS", "EURO", "DOLLAR", "MM", "F" })
+    private StandardType       type;
+    @Param({ "en-US", "de-DE", "fr-FR", "de-CH" })
+    private String             languageTag;
+    private FormattedTextField field;
+    private String[]           texts;
+    private int                index;
+
+
+    @Setup public void setup() {
+        HeadlessFx.start();
+        final Locale locale = Locale.forLanguageTag(languageTag);
+        field = new FormattedTextField(new Format(type), 10, 2, locale, true);
+        texts = new String[] {
+            field.createFormatEngine().toText(new BigDecimal("1234567.89")),
+            field.createFormatEngine().toText(new BigDecimal("-1.5")),
+            field.createFormatEngine().toText(new BigDecimal("1"))
+        };
+    }
+
+    @Benchmark public String parseAndFormat() {
+        field.setText(texts[index++ % texts.length]);
+        field.parseAndFormat();
+        return field.getText();
+    }
+}
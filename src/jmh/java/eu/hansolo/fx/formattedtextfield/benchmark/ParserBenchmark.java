@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield.benchmark;
+
+import eu.hansolo.fx.formattedtextfield.DecimalParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * DecimalParser compared to the former DecimalFormat.parse() and
+ * new BigDecimal(number.toString()) round trip.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({ "1234,5", "-1.234.567,89", "123.456.789.012.345.678.901,23 EUR" })
+    private String        text;
+    private DecimalFormat decimalFormat;
+    private DecimalParser parser;
+
+
+    @Setup public void setup() {
+        final DecimalFormatSymbols symbols = new DecimalFormatSymbols(Locale.GERMANY);
+        decimalFormat = new DecimalFormat("#,###,##0.00", symbols);
+        parser        = new DecimalParser(symbols);
+    }
+
+    @Benchmark public BigDecimal decimalFormat() throws ParseException {
+        return new BigDecimal(decimalFormat.parse(text).toString());
+    }
+
+    @Benchmark public BigDecimal decimalParser() throws ParseException {
+        return parser.parse(text);
+    }
+
+    @Benchmark public long decimalParserUnscaled() throws ParseException {
+        return parser.parseUnscaled("-1.234.567,89", 2);
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield.benchmark;
+
+import eu.hansolo.fx.formattedtextfield.Format;
+import eu.hansolo.fx.formattedtextfield.FormattedTextField;
+import eu.hansolo.fx.formattedtextfield.StandardType;
+import eu.hansolo.fx.formattedtextfield.ValueFeed;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.TilePane;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+
+/**
+ * Scene scale stress runner. Builds a scene with thousands of fields of all
+ * StandardTypes on the headless Monocle platform and measures the pulses that
+ * follow typing, tabbing, value feeds, sign changes and full restyles.
+ * For every scenario the wall time, the scene pulse time (CSS + layout), the
+ * CSS pass time and the bytes allocated by all threads, including the pool
+ * threads that format the values of the feed, are written as one JSON object
+ * per line.
+ * Run with ./gradlew stress [-Pstress.fields=1000,10000]
+ */
+public final class StressSuite {
+    private static final StandardType[] TYPES   = StandardType.values();
+    private static final int            STEPS   = 200;
+    private static final long           TIMEOUT = 30;
+    private final        int            count;
+    private final        List<FormattedTextField> fields = new ArrayList<>();
+    private              Stage          stage;
+    private              Scene          scene;
+    private              TilePane       pane;
+    private volatile     CountDownLatch pulseLatch;
+    private              BooleanSupplier settled;
+    private              long           pulseStart;
+    private              long           cssNanos;
+    private              long           pulseNanos;
+    private              long           maxPulseNanos;
+    private              int            pulses;
+
+
+    // ******************** Constructors **************************************
+    private StressSuite(final int count) {
+        this.count = count;
+    }
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] args) throws Exception {
+        final String      sizes  = args.length > 0 ? args[0] : "1000,10000";
+        final PrintStream out    = args.length > 1 ? new PrintStream(Files.newOutputStream(createParents(Paths.get(args[1]))), true, "UTF-8") : System.out;
+        HeadlessFx.start();
+        try {
+            for (String size : sizes.split(",")) {
+                final StressSuite suite = new StressSuite(Integer.parseInt(size.trim()));
+                suite.run(out);
+            }
+        } finally {
+            if (out != System.out) { out.close(); }
+            Platform.exit();
+        }
+    }
+
+    private void run(final PrintStream out) throws Exception {
+        out.println(measure("build", 1, i -> build()));
+        out.println(measure("restyle", 10, i -> pane.getStyleClass().setAll(0 == i % 2 ? "stress" : "stress-alt")));
+        out.println(measure("typing", STEPS, this::type));
+        out.println(measure("tabbing", STEPS, i -> tab()));
+        out.println(measure("negative", 10, i -> {
+            final BigDecimal value = BigDecimal.valueOf(0 == i % 2 ? -(i + 1) : i + 1);
+            for (FormattedTextField field : fields) { field.setValue(value); }
+        }));
+        out.println(feed());
+        onFxThread(() -> stage.hide());
+    }
+
+    private void build() {
+        pane = new TilePane();
+        pane.setPrefColumns(20);
+        for (int i = 0 ; i < count ; i++) {
+            final FormattedTextField field = new FormattedTextField(new Format(TYPES[i % TYPES.length]), 10, 2, Locale.GERMANY, 0 == i % 2);
+            field.setValue(BigDecimal.valueOf(i, 2));
+            fields.add(field);
+        }
+        pane.getChildren().setAll(fields);
+        scene = new Scene(pane, 1280, 800);
+        scene.addPreLayoutPulseListener(this::beforeLayout);
+        scene.addPostLayoutPulseListener(this::afterLayout);
+        stage = new Stage();
+        stage.setScene(scene);
+        stage.show();
+        fields.get(0).requestFocus();
+    }
+
+    // a digit is typed into every n-th field, the text goes through the TextFormatter filter
+    private void type(final int step) {
+        final FormattedTextField field = fields.get((step * 37) % count);
+        if (!field.isFocused()) {
+            field.requestFocus();
+            field.end();
+        }
+        field.replaceSelection(Integer.toString(step % 10));
+    }
+
+    private void tab() {
+        final Node owner = scene.getFocusOwner();
+        if (null == owner) { return; }
+        owner.fireEvent(new KeyEvent(KeyEvent.KEY_PRESSED, "", "", KeyCode.TAB, false, false, false, false));
+    }
+
+    // all fields are updated by a ValueFeed, a step ends with the pulse that shows the last published value
+    private String feed() throws Exception {
+        // the pool threads live until the end, so their allocations are in both snapshots
+        final ThreadPoolExecutor          pool      = (ThreadPoolExecutor) Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        final ValueFeed                   feed      = new ValueFeed(pool);
+        final FormattedTextField          last      = fields.get(count - 1);
+        final AtomicReference<BigDecimal> lastValue = new AtomicReference<>();
+        pool.prestartAllCoreThreads();
+        onFxThread(feed::start);
+        try {
+            return measure("feed", 20, i -> {
+                for (int f = 0 ; f < count ; f++) { feed.publish(fields.get(f), BigDecimal.valueOf(i * 1_000 + f, 2)); }
+                lastValue.set(BigDecimal.valueOf(i * 1_000 + count - 1, 2));
+            }, () -> 0 == feed.getPendingCount() && null != last.getValue() && last.getValue().compareTo(lastValue.get()) == 0);
+        } finally {
+            onFxThread(feed::stop);
+            pool.shutdown();
+        }
+    }
+
+    private String measure(final String scenario, final int steps, final IntConsumer step) throws Exception {
+        return measure(scenario, steps, step, () -> true);
+    }
+    /**
+     * Runs the steps one after the other, a step ends with the first pulse
+     * after which settled returns true.
+     */
+    private String measure(final String scenario, final int steps, final IntConsumer step, final BooleanSupplier settled) throws Exception {
+        pulses        = 0;
+        cssNanos      = 0;
+        pulseNanos    = 0;
+        maxPulseNanos = 0;
+        this.settled  = settled;
+        final Map<Long, Long> allocated = allocatedBytes();
+        final long            start     = System.nanoTime();
+        for (int i = 0 ; i < steps ; i++) {
+            final int            index = i;
+            final CountDownLatch latch = new CountDownLatch(1);
+            onFxThread(() -> {
+                step.accept(index);
+                pulseLatch = latch;
+                Platform.requestNextPulse();
+            });
+            if (!latch.await(TIMEOUT, TimeUnit.SECONDS)) { throw new IllegalStateException("No pulse after step " + i + " of " + scenario); }
+        }
+        final long wall  = System.nanoTime() - start;
+        final long bytes = allocatedSince(allocated);
+        return String.format(Locale.ROOT, "{\"scenario\":\"%s\",\"fields\":%d,\"steps\":%d,\"wallMs\":%.3f,\"pulses\":%d,\"pulseMsAvg\":%.3f,\"pulseMsMax\":%.3f,\"cssMsAvg\":%.3f,\"layoutMsAvg\":%.3f,\"allocatedBytes\":%d,\"allocatedBytesPerStep\":%d}",
+                             scenario, count, steps, wall / 1e6, pulses, avgMs(pulseNanos), maxPulseNanos / 1e6, avgMs(cssNanos), avgMs(pulseNanos - cssNanos), bytes, bytes / steps);
+    }
+
+    // the CSS pass is triggered explicitly so that it can be timed separately from the layout pass
+    private void beforeLayout() {
+        if (null == pulseLatch) { return; }
+        pulseStart = System.nanoTime();
+        scene.getRoot().applyCss();
+        cssNanos += System.nanoTime() - pulseStart;
+    }
+
+    private void afterLayout() {
+        final CountDownLatch latch = pulseLatch;
+        if (null == latch) { return; }
+        final long duration = System.nanoTime() - pulseStart;
+        pulseNanos    += duration;
+        maxPulseNanos  = Math.max(maxPulseNanos, duration);
+        pulses++;
+        if (!settled.getAsBoolean()) {
+            Platform.requestNextPulse();
+            return;
+        }
+        pulseLatch = null;
+        latch.countDown();
+    }
+
+    private double avgMs(final long nanos) { return 0 == pulses ? 0 : nanos / 1e6 / pulses; }
+
+    // bytes allocated per live thread, threads that end before the next snapshot drop out of both
+    private static Map<Long, Long> allocatedBytes() {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long[]          ids       = threads.getAllThreadIds();
+        final long[]          bytes     = threads.getThreadAllocatedBytes(ids);
+        final Map<Long, Long> allocated = new HashMap<>();
+        for (int i = 0 ; i < ids.length ; i++) {
+            if (bytes[i] >= 0) { allocated.put(ids[i], bytes[i]); }
+        }
+        return allocated;
+    }
+
+    private static long allocatedSince(final Map<Long, Long> before) {
+        long sum = 0;
+        for (Map.Entry<Long, Long> entry : allocatedBytes().entrySet()) { sum += entry.getValue() - before.getOrDefault(entry.getKey(), 0L); }
+        return sum;
+    }
+
+    private static void onFxThread(final Runnable runnable) throws Exception {
+        final CountDownLatch             latch = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        Platform.runLater(() -> {
+            try {
+                runnable.run();
+            } catch (Throwable t) {
+                error.set(t);
+            } finally {
+                latch.countDown();
+            }
+        });
+        latch.await();
+        if (null != error.get()) { throw new IllegalStateException(error.get()); }
+    }
+
+    private static Path createParents(final Path path) throws IOException {
+        if (null != path.getParent()) { Files.createDirectories(path.getParent()); }
+        return path;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield.benchmark;
+
+import eu.hansolo.fx.formattedtextfield.FieldTemplate;
+import eu.hansolo.fx.formattedtextfield.FormattedTextField;
+import eu.hansolo.fx.formattedtextfield.FormattedTextFieldBuilder;
+import eu.hansolo.fx.formattedtextfield.StandardType;
+import eu.hansolo.fx.formattedtextfield.UnitPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Building a form of 1,000 fields, once through the builder and once by
+ * stamping them out of a precompiled template.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateBenchmark {
+    private static final int           FIELDS = 1_000;
+    private static final BigDecimal    VALUE  = new BigDecimal("1234.56");
+    private              FieldTemplate template;
+
+
+    @Setup public void setup() {
+        HeadlessFx.start();
+        template = builder().buildTemplate();
+    }
+
+    @Benchmark public FormattedTextField[] builder1000() {
+        final FormattedTextField[] fields = new FormattedTextField[FIELDS];
+        for (int i = 0 ; i < FIELDS ; i++) { fields[i] = builder().value(VALUE).build(); }
+        return fields;
+    }
+
+    @Benchmark public FormattedTextField[] template1000() {
+        final FormattedTextField[] fields = new FormattedTextField[FIELDS];
+        for (int i = 0 ; i < FIELDS ; i++) { fields[i] = template.createField(VALUE); }
+        return fields;
+    }
+
+
+    private static FormattedTextFieldBuilder<?> builder() {
+        return FormattedTextFieldBuilder.create(StandardType.EURO)
+                                        .preDecimals(8)
+                                        .decimals(2)
+                                        .locale(Locale.GERMANY)
+                                        .negativeNumbersAllowed(true)
+                                        .unitPosition(UnitPos.AFTER)
+                                        .promptText("Amount");
+    }
+}
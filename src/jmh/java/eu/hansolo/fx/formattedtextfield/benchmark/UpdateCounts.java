@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield.benchmark;
+
+import eu.hansolo.fx.formattedtextfield.FieldActivity;
+import eu.hansolo.fx.formattedtextfield.Format;
+import eu.hansolo.fx.formattedtextfield.FormattedTextField;
+import eu.hansolo.fx.formattedtextfield.Metrics;
+import eu.hansolo.fx.formattedtextfield.SimpleMetricsRegistry;
+import eu.hansolo.fx.formattedtextfield.StandardType;
+import eu.hansolo.fx.formattedtextfield.UnitPos;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Asserts how often a FormattedTextField parses, renders and notifies the
+ * listeners of its value property per external change: at most one parse
+ * and one render, one notification per actual change and nothing at all for
+ * changes that don't change anything. Reconfiguring an unedited field and
+ * leaving it without an edit don't parse the text at all. The counts are taken from a
+ * SimpleMetricsRegistry. Exits with 1 if any count is off.
+ * Run with ./gradlew updateCounts
+ */
+public final class UpdateCounts {
+    private final SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+    private       FormattedTextField    field;
+    private       FormattedTextField    other;
+    private       int                   changes;
+    private       int                   failures;
+
+
+    // ******************** Constructors **************************************
+    private UpdateCounts() {}
+
+
+    // ******************** Methods *******************************************
+    public static void main(final String[] args) throws Exception {
+        HeadlessFx.start();
+        final UpdateCounts counts = new UpdateCounts();
+        try {
+            onFxThread(counts::run);
+        } finally {
+            Platform.exit();
+        }
+        System.out.printf("%d failures%n", counts.failures);
+        if (counts.failures > 0) { System.exit(1); }
+    }
+
+    private void run() {
+        Metrics.setRegistry(registry);
+        for (boolean fixedPoint : new boolean[] { false, true }) {
+            System.out.printf("fixed point: %s%n", fixedPoint);
+            field = new FormattedTextField(new Format(StandardType.EURO), 10, 2, Locale.US, false);
+            other = new FormattedTextField(new Format(StandardType.KM), 10, 2, Locale.US, false);
+            field.setFixedPoint(fixedPoint);
+            field.valueProperty().addListener((o, ov, nv) -> changes++);
+            final Stage stage = new Stage();
+            stage.setScene(new Scene(new VBox(field, other)));
+            stage.show();
+            other.requestFocus();
+
+            check("setValue",                 () -> field.setValue(new BigDecimal("12.5")),        0, 1, 1);
+            check("setValue, same value",     () -> field.setValue(new BigDecimal("12.50")),       0, 0, 0);
+            check("setValue, other scale",    () -> field.setValue(new BigDecimal("12.500")),      0, 0, 0);
+            check("setValue, negative",       () -> field.setValue(new BigDecimal("-3")),          0, 1, 1);
+            check("setValue, negative again", () -> field.setValue(new BigDecimal("-4")),          0, 0, 0);
+            check("setDecimals",              () -> field.setDecimals(3),                          0, 1, 0);
+            check("setDecimals, same",        () -> field.setDecimals(3),                          0, 0, 0);
+            check("setLocale",                () -> field.setLocale(Locale.GERMANY),               0, 1, 0);
+            check("setUnitPosition",          () -> field.setUnitPosition(UnitPos.IN_FRONT),       0, 1, 0);
+            check("setUnitPosition, same",    () -> field.setUnitPosition(UnitPos.IN_FRONT),       0, 0, 0);
+            field.setValue(new BigDecimal("7"));
+            check("focus and blur",           () -> { field.requestFocus(); other.requestFocus(); }, 0, 0, 0);
+            check("edit and blur",            () -> {
+                field.requestFocus();
+                field.setText("1234,5");
+                other.requestFocus();
+            }, 1, 1, 1);
+            stage.hide();
+        }
+        Metrics.setRegistry(null);
+    }
+
+    private void check(final String name, final Runnable change, final int parses, final int renders, final int notifications) {
+        final long parsesBefore  = registry.getCount(FieldActivity.PARSE);
+        final long rendersBefore = registry.getCount(FieldActivity.RENDER);
+        changes = 0;
+        change.run();
+        final long    actualParses  = registry.getCount(FieldActivity.PARSE) - parsesBefore;
+        final long    actualRenders = registry.getCount(FieldActivity.RENDER) - rendersBefore;
+        final boolean ok            = actualParses == parses && actualRenders == renders && changes == notifications;
+        if (!ok) { failures++; }
+        System.out.printf("  %-26s parses %d/%d, renders %d/%d, notifications %d/%d %s%n", name, actualParses, parses, actualRenders, renders, changes, notifications, ok ? "" : "FAILED");
+    }
+
+    private static void onFxThread(final Runnable runnable) throws Exception {
+        final CountDownLatch             latch = new CountDownLatch(1);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        Platform.runLater(() -> {
+            try {
+                runnable.run();
+            } catch (Throwable t) {
+                error.set(t);
+            } finally {
+                latch.countDown();
+            }
+        });
+        latch.await();
+        if (null != error.get()) { throw new IllegalStateException(error.get()); }
+    }
+}
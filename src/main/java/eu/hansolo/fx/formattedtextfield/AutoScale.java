@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+
+/**
+ * Picks the unit a value is shown in, which is the largest unit of the
+ * dimension the value is at least one of. The thresholds are the sizes of
+ * the units in the unit of the value and are computed once, so picking the
+ * unit only compares numbers.
+ */
+final class AutoScale {
+    private static final int          THRESHOLD_SCALE = 32;
+    private final        Unit         unit;
+    private final        int          decimals;
+    private final        Unit[]       units;
+    private final        BigDecimal[] thresholds;
+    private final        long[]       unscaledThresholds;
+
+
+    // ******************** Constructors **************************************
+    AutoScale(final Unit unit, final int decimals) {
+        this.unit               = unit;
+        this.decimals           = decimals;
+        this.units              = unit.getDimension().getUnitArray();
+        this.thresholds         = new BigDecimal[units.length];
+        this.unscaledThresholds = new long[units.length];
+        for (int i = 0 ; i < units.length ; i++) {
+            // one units[i] in the unit of the value, rounded up
+            final BigInteger numerator   = units[i].getNumerator().multiply(unit.getDenominator());
+            final BigInteger denominator = units[i].getDenominator().multiply(unit.getNumerator());
+            thresholds[i] = new BigDecimal(numerator).divide(new BigDecimal(denominator), THRESHOLD_SCALE, RoundingMode.CEILING);
+            final BigInteger unscaled = new BigDecimal(numerator.multiply(BigInteger.TEN.pow(decimals))).divide(new BigDecimal(denominator), 0, RoundingMode.CEILING).toBigInteger();
+            unscaledThresholds[i] = unscaled.bitLength() < 64 ? unscaled.longValue() : Long.MAX_VALUE;
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    boolean matches(final Unit unit, final int decimals) {
+        // units that have been added to the dimension later are taken into account as well
+        return this.unit == unit && this.decimals == decimals && units == unit.getDimension().getUnitArray();
+    }
+
+    /**
+     * Returns the unit for the given value or the given fallback for zero.
+     */
+    Unit select(final BigDecimal value, final Unit zeroUnit) {
+        if (0 == value.signum()) { return zeroUnit; }
+        final BigDecimal magnitude = value.abs();
+        for (int i = units.length - 1 ; i > 0 ; i--) {
+            if (magnitude.compareTo(thresholds[i]) >= 0) { return units[i]; }
+        }
+        return units[0];
+    }
+    Unit select(final long unscaled, final Unit zeroUnit) {
+        if (0 == unscaled) { return zeroUnit; }
+        // Math.abs() of Long.MIN_VALUE is negative
+        final long magnitude = unscaled == Long.MIN_VALUE ? Long.MAX_VALUE : Math.abs(unscaled);
+        for (int i = units.length - 1 ; i > 0 ; i--) {
+            if (magnitude >= unscaledThresholds[i]) { return units[i]; }
+        }
+        return units[0];
+    }
+}
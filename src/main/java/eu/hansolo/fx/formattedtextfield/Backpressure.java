@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+
+/**
+ * What a ValuePublisher does with value events a subscriber hasn't requested
+ * yet. LATEST only keeps the newest event per field, merged with the old
+ * value of the events it replaces. BUFFER keeps up to the buffer size of
+ * events and drops the oldest ones when it is full. DROP discards events
+ * that arrive while the subscriber has no outstanding demand.
+ */
+public enum Backpressure {
+    LATEST, BUFFER, DROP
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+
+/**
+ * Pastes tab and newline separated values, as they are copied from a
+ * spreadsheet, into a number of fields, row by row. The values are parsed in
+ * parallel, each with the template (locale, grouping, unit) and the shown
+ * unit of its field, and then applied to the fields in one pass on the
+ * JavaFX application thread. A value that cannot be parsed completely, e.g.
+ * "1.234,56" in a field with "." as the decimal separator, is reported and
+ * leaves its field unchanged, the other values are pasted anyway.
+ */
+final class BulkPaste {
+    private static final int PARALLEL_THRESHOLD = 32;
+
+
+    // ******************** Constructors **************************************
+    private BulkPaste() {}
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns true for text with more than one value or with a line break,
+     * which spreadsheets append to a single copied cell.
+     */
+    static boolean isBulk(final String text) {
+        return null != text && (text.indexOf('\t') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0);
+    }
+
+    static String[] split(final String text) {
+        final List<String> cells  = new ArrayList<>();
+        final int          length = trimTrailingLineBreak(text);
+        int                start  = 0;
+        for (int i = 0 ; i <= length ; i++) {
+            final char c = i < length ? text.charAt(i) : '\n';
+            if (c == '\t' || c == '\n' || c == '\r') {
+                cells.add(text.substring(start, i).trim());
+                // \r\n is one line break
+                if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') { i++; }
+                start = i + 1;
+            }
+        }
+        return cells.toArray(new String[0]);
+    }
+
+    static PasteResult paste(final List<FormattedTextField> targets, final String text) {
+        final String[]             cells     = split(text);
+        final int                  size      = Math.min(cells.length, targets.size());
+        final FormattedTextField[] fields    = targets.subList(0, size).toArray(new FormattedTextField[0]);
+        final FieldTemplate[]      templates = new FieldTemplate[size];
+        final UnitConversion[]     units     = new UnitConversion[size];
+        final boolean[]            fixed     = new boolean[size];
+        final String[]             texts     = new String[size];
+        final BigDecimal[]         values    = new BigDecimal[size];
+        final String[]             errors    = new String[size];
+        for (int i = 0 ; i < size ; i++) {
+            templates[i] = fields[i].getTemplate();
+            units[i]     = fields[i].getFromShownConversion();
+            fixed[i]     = fields[i].isFixedPoint();
+            texts[i]     = cells[i];
+        }
+
+        final IntStream indices = IntStream.range(0, size);
+        (size < PARALLEL_THRESHOLD ? indices : indices.parallel()).forEach(i -> {
+            try {
+                values[i] = parse(texts[i], templates[i], units[i], fixed[i]);
+            } catch (ParseException | ArithmeticException e) {
+                errors[i] = e.getMessage();
+            }
+        });
+
+        for (int i = 0 ; i < size ; i++) {
+            if (null == errors[i]) { fields[i].commitEditValue(values[i]); }
+        }
+        return new PasteResult(fields, texts, values, errors, cells.length - size);
+    }
+
+
+    // ******************** Private Methods ***********************************
+    /**
+     * Parses the text in the shown unit and converts it to the unit of the
+     * field. The digits are checked after the conversion, because that's the
+     * value the field stores.
+     */
+    private static BigDecimal parse(final String text, final FieldTemplate template, final UnitConversion fromShown, final boolean fixedPoint) throws ParseException {
+        if (text.isEmpty()) { return null; }
+        final BigDecimal parsed = template.getParser().parseFully(text);
+        if (parsed.signum() < 0 && !template.getNegativeNumbersAllowed()) { throw new ParseException("Negative numbers are not allowed: \"" + text + "\"", 0); }
+        final BigDecimal value = null == fromShown ? parsed : fromShown.convert(parsed, Math.max(template.getDecimals(), parsed.scale()));
+        if (value.precision() - value.scale() > template.getPreDecimals()) { throw new ParseException("More than " + template.getPreDecimals() + " digits before the decimal separator: \"" + text + "\"", 0); }
+        if (fixedPoint) {
+            try {
+                FixedPointFormat.toUnscaled(value, template.getDecimals());
+            } catch (ArithmeticException e) {
+                throw new ParseException("Doesn't fit into a fixed point value with " + template.getDecimals() + " decimals: \"" + text + "\"", 0);
+            }
+        }
+        return value;
+    }
+
+    private static int trimTrailingLineBreak(final String text) {
+        int length = text.length();
+        if (length > 0 && text.charAt(length - 1) == '\n') { length--; }
+        if (length > 0 && text.charAt(length - 1) == '\r') { length--; }
+        return length;
+    }
+}
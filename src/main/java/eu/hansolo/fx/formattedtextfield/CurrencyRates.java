@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * A table of exchange rates that are supplied by the application. Every
+ * table is a Dimension of its own with the base currency as base unit, so
+ * its currencies can be converted into each other but not into currencies
+ * of another table. Rates are exact (1 base = rate currency) and fixed once
+ * added, new rates go into a new table.
+ */
+public final class CurrencyRates {
+    private final Dimension         dimension;
+    private final Unit              baseCurrency;
+    private final Map<String, Unit> currencies;
+
+
+    // ******************** Constructors **************************************
+    public CurrencyRates(final String baseCurrency) {
+        this.dimension    = new Dimension("currency " + baseCurrency, false);
+        this.baseCurrency = Unit.define(dimension, baseCurrency, baseCurrency, BigDecimal.ONE);
+        this.currencies   = new LinkedHashMap<>();
+        currencies.put(baseCurrency, this.baseCurrency);
+    }
+
+
+    // ******************** Public Methods ************************************
+    /**
+     * Adds a currency with the given rate and returns its unit.
+     */
+    public synchronized Unit add(final String currency, final BigDecimal rate) {
+        if (null == rate || rate.signum() <= 0) { throw new IllegalArgumentException("rate must be positive"); }
+        if (currencies.containsKey(currency))   { throw new IllegalArgumentException(currency + " has already been added"); }
+        // the currency is worth 1 / rate base currencies
+        final BigInteger numerator   = rate.scale() > 0 ? BigInteger.TEN.pow(rate.scale()) : BigInteger.ONE;
+        final BigInteger denominator = rate.scale() > 0 ? rate.unscaledValue() : rate.toBigIntegerExact();
+        final Unit       unit        = Unit.define(dimension, currency, currency, numerator, denominator);
+        currencies.put(currency, unit);
+        return unit;
+    }
+
+    public Dimension getDimension() { return dimension; }
+
+    public Unit getBaseCurrency() { return baseCurrency; }
+
+    public synchronized Unit get(final String currency) { return currencies.get(currency); }
+
+    public synchronized Map<String, Unit> getCurrencies() { return Collections.unmodifiableMap(new LinkedHashMap<>(currencies)); }
+}
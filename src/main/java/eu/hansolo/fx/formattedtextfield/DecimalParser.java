@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.util.Arrays;
+import java.util.Comparator;
+
+
+/**
+ * Parses localized number text as it is typed or shown by a FormattedTextField
+ * directly into an exact BigDecimal or an unscaled long in one pass.
+ * Accepted is an optional minus sign or negative prefix, an optional unit
+ * prefix (UnitPos.IN_FRONT), digits with grouping separators, the decimal
+ * separator and fraction digits. Digits can be ASCII or the native digits of
+ * the locale.
+ * Parsing stops at the first other character, e.g. a unit suffix, while
+ * parseFully() only accepts whitespace and a unit suffix behind the number.
+ * In contrast to DecimalFormat.parse() no double is involved, so all digits
+ * and the number of typed fraction digits are kept.
+ */
+public final class DecimalParser {
+    private static final int      MAX_LONG_DIGITS = 18;
+    private final        char     decimalSeparator;
+    private final        char     groupingSeparator;
+    private final        char     minusSign;
+    private final        char     zeroDigit;
+    private final        String[] prefixes;
+    private final        String[] negativePrefixes;
+    private final        String[] suffixes;
+
+
+    // ******************** Constructors **************************************
+    public DecimalParser(final DecimalFormatSymbols symbols, final String... prefixes) {
+        this(symbols, prefixes, new String[0], new String[0]);
+    }
+    /**
+     * Accepts the positive and negative prefixes and the suffixes of the given
+     * formats, which have to use the same symbols. Negative prefixes can be
+     * longer than one minus sign, e.g. with a bidi mark in front of it.
+     */
+    public DecimalParser(final DecimalFormat... formats) {
+        this(formats[0].getDecimalFormatSymbols(),
+             Arrays.stream(formats).map(DecimalFormat::getPositivePrefix).toArray(String[]::new),
+             Arrays.stream(formats).map(DecimalFormat::getNegativePrefix).toArray(String[]::new),
+             Arrays.stream(formats).map(format -> format.getPositiveSuffix().trim()).toArray(String[]::new));
+    }
+    private DecimalParser(final DecimalFormatSymbols symbols, final String[] prefixes, final String[] negativePrefixes, final String[] suffixes) {
+        this.decimalSeparator  = symbols.getDecimalSeparator();
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.minusSign         = symbols.getMinusSign();
+        this.zeroDigit         = symbols.getZeroDigit();
+        this.prefixes          = sortedPrefixes(prefixes);
+        this.negativePrefixes  = sortedPrefixes(negativePrefixes);
+        this.suffixes          = sortedPrefixes(suffixes);
+    }
+
+
+    // ******************** Public Methods ************************************
+    public char getDecimalSeparator() { return decimalSeparator; }
+
+    public char getGroupingSeparator() { return groupingSeparator; }
+
+    public BigDecimal parse(final CharSequence text) throws ParseException {
+        return parse(text, new ParsePosition(0));
+    }
+    /**
+     * Parses the number at the given position and sets the position to the
+     * first character behind it.
+     */
+    public BigDecimal parse(final CharSequence text, final ParsePosition position) throws ParseException {
+        final int length   = null == text ? 0 : text.length();
+        int       index    = skipPrefix(negativePrefixes, text, position.getIndex());
+        boolean   negative = index > position.getIndex();
+        if (!negative) {
+            if (index < length && isMinus(text.charAt(index))) {
+                negative = true;
+                index++;
+            }
+            index = skipPrefix(prefixes, text, index);
+            if (!negative && index < length && isMinus(text.charAt(index))) {
+                negative = true;
+                index++;
+            }
+        }
+        final BigDecimal value = parseNumber(text, index, negative, position);
+        if (null == value) { throw new ParseException("Unparseable number: \"" + text + "\"", position.getIndex()); }
+        return value;
+    }
+
+    /**
+     * Parses text that contains nothing but the number, optionally followed
+     * by whitespace and one of the unit suffixes, e.g. a pasted cell. Unlike
+     * parse() it fails for text like "1.234,56" in a locale with "." as the
+     * decimal separator instead of returning 1.234.
+     */
+    public BigDecimal parseFully(final CharSequence text) throws ParseException {
+        final ParsePosition position = new ParsePosition(0);
+        final BigDecimal    value    = parse(text, position);
+        int                 index    = skipPrefix(suffixes, text, skipWhitespace(text, position.getIndex()));
+        index = skipWhitespace(text, index);
+        if (index < text.length()) { throw new ParseException("Unparseable number: \"" + text + "\"", index); }
+        return value;
+    }
+
+    private BigDecimal parseNumber(final CharSequence text, final int begin, final boolean negative, final ParsePosition position) {
+        final int length    = null == text ? 0 : text.length();
+        final int start     = begin;
+        int       index     = begin;
+        long      unscaled  = 0;
+        int       digits    = 0;
+        int       scale     = 0;
+        boolean   hasDigits = false;
+        while (index < length) {
+            final int digit = digit(text.charAt(index));
+            if (digit >= 0) {
+                unscaled  = unscaled * 10 + digit;
+                hasDigits = true;
+                digits++;
+            } else if (text.charAt(index) != groupingSeparator) {
+                break;
+            }
+            index++;
+        }
+        if (index < length && text.charAt(index) == decimalSeparator) {
+            index++;
+            while (index < length && digit(text.charAt(index)) >= 0) {
+                unscaled  = unscaled * 10 + digit(text.charAt(index));
+                hasDigits = true;
+                digits++;
+                scale++;
+                index++;
+            }
+        }
+        if (!hasDigits) { return null; }
+        position.setIndex(index);
+        if (digits <= MAX_LONG_DIGITS) { return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale); }
+        return toBigDecimal(text, start, index, negative, digits);
+    }
+
+    /**
+     * Parses the given text into an unscaled long with the given scale,
+     * surplus fraction digits are rounded half even.
+     */
+    public long parseUnscaled(final CharSequence text, final int scale) throws ParseException {
+        final int length   = null == text ? 0 : text.length();
+        int       index    = skipPrefix(negativePrefixes, text, 0);
+        boolean   negative = index > 0;
+        if (!negative) {
+            if (index < length && isMinus(text.charAt(index))) {
+                negative = true;
+                index++;
+            }
+            index = skipPrefix(prefixes, text, index);
+            if (!negative && index < length && isMinus(text.charAt(index))) {
+                negative = true;
+                index++;
+            }
+        }
+        final long unscaled = FixedPointFormat.parse(text, index, scale, decimalSeparator, groupingSeparator, zeroDigit);
+        return negative ? -unscaled : unscaled;
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private static String[] sortedPrefixes(final String[] prefixes) {
+        return Arrays.stream(prefixes)
+                     .filter(prefix -> null != prefix && !prefix.isEmpty())
+                     .distinct()
+                     .sorted(Comparator.comparingInt(String::length).reversed())
+                     .toArray(String[]::new);
+    }
+
+    private static int skipPrefix(final String[] prefixes, final CharSequence text, final int index) {
+        if (null == text) { return index; }
+        for (String prefix : prefixes) {
+            final int end = index + prefix.length();
+            if (end > text.length()) { continue; }
+            boolean matches = true;
+            for (int i = 0 ; i < prefix.length() && matches ; i++) { matches = text.charAt(index + i) == prefix.charAt(i); }
+            if (matches) { return end; }
+        }
+        return index;
+    }
+
+    private static int skipWhitespace(final CharSequence text, final int index) {
+        int i = index;
+        while (i < text.length() && (Character.isWhitespace(text.charAt(i)) || Character.isSpaceChar(text.charAt(i)))) { i++; }
+        return i;
+    }
+
+    private BigDecimal toBigDecimal(final CharSequence text, final int start, final int end, final boolean negative, final int digits) {
+        final char[] chars  = new char[digits + 2];
+        int          length = 0;
+        if (negative) { chars[length++] = '-'; }
+        for (int i = start ; i < end ; i++) {
+            final char c     = text.charAt(i);
+            final int  digit = digit(c);
+            if (digit >= 0) {
+                chars[length++] = (char) ('0' + digit);
+            } else if (c == decimalSeparator) {
+                chars[length++] = '.';
+            }
+        }
+        return new BigDecimal(chars, 0, length);
+    }
+
+    private boolean isMinus(final char c) { return c == '-' || c == minusSign; }
+
+    private int digit(final char c) { return FixedPointFormat.digit(c, zeroDigit); }
+}
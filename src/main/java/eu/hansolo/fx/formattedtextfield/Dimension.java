@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * A physical dimension like length or time. Every Unit belongs to one
+ * dimension and can only be converted into units of the same dimension.
+ * The units of a dimension are kept sorted by their size, auto scaling
+ * picks one of them.
+ */
+public final class Dimension {
+    public static final Dimension LENGTH = new Dimension("length");
+    public static final Dimension TIME   = new Dimension("time");
+    private final       String    name;
+    private final       boolean   autoScalable;
+    private volatile    Unit[]    units;
+
+
+    // ******************** Constructors **************************************
+    public Dimension(final String name) {
+        this(name, true);
+    }
+    public Dimension(final String name, final boolean autoScalable) {
+        if (null == name) { throw new IllegalArgumentException("name cannot be null"); }
+        this.name         = name;
+        this.autoScalable = autoScalable;
+        this.units        = new Unit[0];
+    }
+
+
+    // ******************** Public Methods ************************************
+    public String getName() { return name; }
+
+    /**
+     * False for dimensions like currencies where the size of a value doesn't
+     * say anything about the unit it should be shown in.
+     */
+    public boolean isAutoScalable() { return autoScalable; }
+
+    /**
+     * Returns the units of this dimension from the smallest to the largest.
+     */
+    public List<Unit> getUnits() { return Collections.unmodifiableList(Arrays.asList(units)); }
+
+    @Override public String toString() { return name; }
+
+
+    // ******************** Package Methods ***********************************
+    Unit[] getUnitArray() { return units; }
+
+    synchronized void add(final Unit unit) {
+        final Unit[] newUnits = Arrays.copyOf(units, units.length + 1);
+        int index = units.length;
+        while (index > 0 && newUnits[index - 1].compareFactor(unit) > 0) {
+            newUnits[index] = newUnits[index - 1];
+            index--;
+        }
+        newUnits[index] = unit;
+        units = newUnits;
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+
+/**
+ * The kinds of work a FormattedTextField reports to the Metrics.
+ */
+public enum FieldActivity {
+    FILTER_ACCEPTED, FILTER_REJECTED, PARSE, PARSE_FAILED, PATTERN_APPLIED, DECIMALS_CHANGED, LOCALE_CHANGED, RENDER, VALIDATION, VALIDATION_FAILED
+}
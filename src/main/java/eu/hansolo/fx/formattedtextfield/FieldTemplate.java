@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import javafx.scene.control.TextFormatter.Change;
+
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+
+/**
+ * Immutable, validated and precompiled configuration of a FormattedTextField.
+ * Patterns, formatters, symbols and the keystroke filter are resolved once
+ * when the template is created, so stamping out fields from a template does
+ * not recompile anything. One template can be shared by any number of fields.
+ * With less display decimals than decimals the unfocused text shows the
+ * value truncated to the display decimals, the value itself stays exact.
+ * A template with a Unit shows the symbols of the unit instead of the unit
+ * of its Format.
+ */
+public final class FieldTemplate {
+    public  static final int                                    MAX_PRE_DECIMALS = 24;
+    public  static final int                                    MAX_DECIMALS     = 200;
+    private static final Map<Key, WeakReference<FieldTemplate>> INTERNED         = new WeakHashMap<>();
+    private static final Object                                 NO_UNIT          = new Object();
+    private final        Format                                 format;
+    private final        Format                                 baseFormat;
+    private final        Unit                                   unit;
+    private final        int                                    predecimals;
+    private final        int                                    decimals;
+    private final        int                                    displayDecimals;
+    private final        int                                    maxDisplayDecimals;
+    private final        Locale                                 locale;
+    private final        boolean                                negativeNumbersAllowed;
+    private final        UnitPos                                unitPosition;
+    private final        String                                 promptText;
+    private final        String                                 pattern;
+    private final        DecimalFormatSymbols                   decimalFormatSymbols;
+    private final        DecimalParser                          parser;
+    private final        DecimalFormat                          numberFormat;
+    private final        DecimalFormat                          unitFormat;
+    private final        DecimalFormat                          unitsFormat;
+    private final        NumericInputValidator                  validator;
+    private final        UnaryOperator<Change>                  filter;
+    private              FixedPointFormat                       numberFixedPointFormat;
+    private              FixedPointFormat                       unitFixedPointFormat;
+    private              FixedPointFormat                       unitsFixedPointFormat;
+    private volatile     FormatEngine                           formatEngine;
+    private              Key                                    internKey;
+    private              Map<Object, FieldTemplate>             unitVariants;
+
+
+    // ******************** Constructors **************************************
+    private FieldTemplate(final Format format, final int predecimals, final int decimals, final int maxDisplayDecimals, final Locale locale, final boolean negativeNumbersAllowed, final UnitPos unitPosition, final String promptText) {
+        this(format, null, predecimals, decimals, maxDisplayDecimals, locale, negativeNumbersAllowed, unitPosition, promptText);
+    }
+    private FieldTemplate(final Format baseFormat, final Unit unit, final int predecimals, final int decimals, final int maxDisplayDecimals, final Locale locale, final boolean negativeNumbersAllowed, final UnitPos unitPosition, final String promptText) {
+        if (null == baseFormat) { throw new IllegalArgumentException("format cannot be null"); }
+        if (null == locale)     { throw new IllegalArgumentException("locale cannot be null"); }
+        this.baseFormat             = baseFormat;
+        this.unit                   = unit;
+        this.predecimals            = clamp(1, MAX_PRE_DECIMALS, predecimals);
+        this.decimals               = clamp(0, MAX_DECIMALS, decimals);
+        this.maxDisplayDecimals     = clamp(0, MAX_DECIMALS, maxDisplayDecimals);
+        this.displayDecimals        = Math.min(this.decimals, this.maxDisplayDecimals);
+        this.locale                 = locale;
+        this.negativeNumbersAllowed = negativeNumbersAllowed;
+        this.unitPosition           = null == unitPosition ? UnitPos.AFTER : unitPosition;
+        this.promptText             = null == promptText ? baseFormat.getPrompt() : promptText;
+        this.pattern                = Format.createPattern(baseFormat.getType(), displayDecimals);
+        // the shared format that describes exactly what this template shows
+        this.format                 = Format.of(baseFormat.getType(), pattern, null == unit ? baseFormat.getUnit() : unit.getSymbol(), null == unit ? baseFormat.getUnits() : unit.getPluralSymbol(), baseFormat.getPrompt(), locale);
+        this.decimalFormatSymbols   = FormatCache.getDecimalFormatSymbols(locale);
+        this.numberFormat           = FormatCache.getDecimalFormat(format.getType(), pattern, locale);
+        this.unitFormat             = FormatCache.getDecimalFormat(format.getType(), pattern, locale, this.unitPosition, format.getUnit());
+        this.unitsFormat            = format.hasMultipleUnits() ? FormatCache.getDecimalFormat(format.getType(), pattern, locale, this.unitPosition, format.getUnits()) : unitFormat;
+        this.parser                 = new DecimalParser(numberFormat, unitFormat, unitsFormat);
+        this.validator              = new NumericInputValidator(this.predecimals, this.decimals, negativeNumbersAllowed, decimalFormatSymbols.getDecimalSeparator());
+        final StandardType type = format.getType();
+        this.filter                 = c -> {
+            final long    start    = Metrics.start();
+            final boolean accepted = validator.isValid(c.getControlNewText());
+            Metrics.record(type, accepted ? FieldActivity.FILTER_ACCEPTED : FieldActivity.FILTER_REJECTED, start);
+            return accepted ? c : null;
+        };
+    }
+
+
+    // ******************** Public Methods ************************************
+    public static FieldTemplate of(final Format format, final int decimals) {
+        return new FieldTemplate(format, MAX_PRE_DECIMALS, decimals, MAX_DECIMALS, Locale.getDefault(), false, UnitPos.AFTER, null);
+    }
+    public static FieldTemplate of(final Format format, final int predecimals, final int decimals, final Locale locale, final boolean negativeNumbersAllowed) {
+        return new FieldTemplate(format, predecimals, decimals, MAX_DECIMALS, locale, negativeNumbersAllowed, UnitPos.AFTER, null);
+    }
+    public static FieldTemplate of(final Format format, final int predecimals, final int decimals, final Locale locale, final boolean negativeNumbersAllowed, final UnitPos unitPosition) {
+        return new FieldTemplate(format, predecimals, decimals, MAX_DECIMALS, locale, negativeNumbersAllowed, unitPosition, null);
+    }
+    public static FieldTemplate of(final Format format, final int predecimals, final int decimals, final Locale locale, final boolean negativeNumbersAllowed, final UnitPos unitPosition, final String promptText) {
+        return new FieldTemplate(format, predecimals, decimals, MAX_DECIMALS, locale, negativeNumbersAllowed, unitPosition, promptText);
+    }
+
+    public FormattedTextField createField() { return new FormattedTextField(this, null); }
+    public FormattedTextField createField(final BigDecimal value) { return new FormattedTextField(this, value); }
+
+    public FieldTemplate withDecimals(final int predecimals, final int decimals) {
+        if (clamp(1, MAX_PRE_DECIMALS, predecimals) == this.predecimals && clamp(0, MAX_DECIMALS, decimals) == this.decimals) { return this; }
+        return derive(predecimals, decimals, maxDisplayDecimals, locale, negativeNumbersAllowed, unitPosition, promptText);
+    }
+
+    public FieldTemplate withLocale(final Locale locale) {
+        if (this.locale.equals(locale)) { return this; }
+        return derive(predecimals, decimals, maxDisplayDecimals, locale, negativeNumbersAllowed, unitPosition, promptText);
+    }
+
+    public FieldTemplate withNegativeNumbersAllowed(final boolean negativeNumbersAllowed) {
+        if (this.negativeNumbersAllowed == negativeNumbersAllowed) { return this; }
+        return derive(predecimals, decimals, maxDisplayDecimals, locale, negativeNumbersAllowed, unitPosition, promptText);
+    }
+
+    public FieldTemplate withUnitPosition(final UnitPos unitPosition) {
+        if (this.unitPosition == unitPosition) { return this; }
+        return derive(predecimals, decimals, maxDisplayDecimals, locale, negativeNumbersAllowed, unitPosition, promptText);
+    }
+
+    /**
+     * Returns a template with all given settings changed at once, without
+     * creating intermediate templates.
+     */
+    public FieldTemplate with(final int decimals, final Locale locale, final boolean negativeNumbersAllowed, final UnitPos unitPosition) {
+        if (clamp(0, MAX_DECIMALS, decimals) == this.decimals && this.locale.equals(locale) && this.negativeNumbersAllowed == negativeNumbersAllowed && this.unitPosition == unitPosition) { return this; }
+        return derive(predecimals, decimals, maxDisplayDecimals, locale, negativeNumbersAllowed, unitPosition, promptText);
+    }
+
+    /**
+     * Returns a template that shows at most the given number of decimals while
+     * the field is not focused. The value is truncated for the display only.
+     */
+    public FieldTemplate withDisplayDecimals(final int displayDecimals) {
+        if (clamp(0, MAX_DECIMALS, displayDecimals) == maxDisplayDecimals) { return this; }
+        return derive(predecimals, decimals, displayDecimals, locale, negativeNumbersAllowed, unitPosition, promptText);
+    }
+
+    /**
+     * Returns a template that shows the symbols of the given unit, null
+     * restores the unit of the Format. Templates that only differ by their
+     * unit are created once and shared.
+     */
+    public FieldTemplate withUnit(final Unit unit) {
+        if (this.unit == unit) { return this; }
+        if (null == unitVariants) {
+            unitVariants = new ConcurrentHashMap<>();
+            unitVariants.put(null == this.unit ? NO_UNIT : this.unit, this);
+        }
+        return unitVariants.computeIfAbsent(null == unit ? NO_UNIT : unit, u -> {
+            final FieldTemplate template = new FieldTemplate(baseFormat, unit, predecimals, decimals, maxDisplayDecimals, locale, negativeNumbersAllowed, unitPosition, promptText);
+            template.unitVariants = unitVariants;
+            return null == internKey ? template : template.intern();
+        });
+    }
+
+    public FieldTemplate withPromptText(final String promptText) {
+        if (this.promptText.equals(promptText)) { return this; }
+        return derive(predecimals, decimals, maxDisplayDecimals, locale, negativeNumbersAllowed, unitPosition, promptText);
+    }
+
+    /**
+     * Returns the shared template with the same settings, which is this one if
+     * there is none yet. Templates derived from an interned template with the
+     * with methods are interned too. Interned templates can be collected once
+     * no field uses them anymore.
+     */
+    public FieldTemplate intern() {
+        if (null != internKey) { return this; }
+        final Key key = new Key(this);
+        synchronized (INTERNED) {
+            final WeakReference<FieldTemplate> reference = INTERNED.get(key);
+            final FieldTemplate                interned  = null == reference ? null : reference.get();
+            if (null != interned) { return interned; }
+            internKey = key;
+            INTERNED.put(key, new WeakReference<>(this));
+            return this;
+        }
+    }
+
+    public boolean isInterned() { return null != internKey; }
+
+    public Format getFormat() { return format; }
+
+    public Unit getUnit() { return unit; }
+
+    public int getPreDecimals() { return predecimals; }
+
+    public int getDecimals() { return decimals; }
+
+    public int getDisplayDecimals() { return displayDecimals; }
+
+    public boolean isDisplayTruncated() { return displayDecimals < decimals; }
+
+    public Locale getLocale() { return locale; }
+
+    public boolean getNegativeNumbersAllowed() { return negativeNumbersAllowed; }
+
+    public UnitPos getUnitPosition() { return unitPosition; }
+
+    public String getPromptText() { return promptText; }
+
+    public String getPattern() { return pattern; }
+
+    /**
+     * Returns a copy of the symbols, the instance the template uses is shared
+     * by all templates of the locale.
+     */
+    public DecimalFormatSymbols getDecimalFormatSymbols() { return (DecimalFormatSymbols) decimalFormatSymbols.clone(); }
+
+    char getDecimalSeparator() { return decimalFormatSymbols.getDecimalSeparator(); }
+
+    public NumericInputValidator getValidator() { return validator; }
+
+    public DecimalParser getParser() { return parser; }
+
+    public FormatEngine createFormatEngine() { return new FormatEngine(format, decimals, displayDecimals, locale, unitPosition, negativeNumbersAllowed); }
+
+    /**
+     * Returns a FormatEngine for this template, it is created on first use and
+     * can be shared between threads.
+     */
+    public FormatEngine getFormatEngine() {
+        if (null == formatEngine) { formatEngine = createFormatEngine(); }
+        return formatEngine;
+    }
+
+
+    // ******************** Package Methods ***********************************
+    DecimalFormat getNumberFormat() { return numberFormat; }
+
+    DecimalFormat getUnitFormat() { return unitFormat; }
+
+    DecimalFormat getUnitsFormat() { return unitsFormat; }
+
+    UnaryOperator<Change> getFilter() { return filter; }
+
+    DecimalFormat formatFor(final BigDecimal value) {
+        return isPlural(value) ? unitsFormat : unitFormat;
+    }
+
+    /**
+     * Returns the value as it is shown, truncated to the display decimals.
+     */
+    BigDecimal toDisplayValue(final BigDecimal value) {
+        return displayDecimals < decimals && value.scale() > displayDecimals ? value.setScale(displayDecimals, RoundingMode.DOWN) : value;
+    }
+
+    boolean isPlural(final BigDecimal value) {
+        return format.hasMultipleUnits() && (value.compareTo(BigDecimal.ONE) > 0 || value.compareTo(BigDecimal.ONE.negate()) < 0);
+    }
+
+    FixedPointFormat getNumberFixedPointFormat() {
+        if (null == numberFixedPointFormat) { numberFixedPointFormat = new FixedPointFormat(numberFormat, decimals, displayDecimals); }
+        return numberFixedPointFormat;
+    }
+
+    FixedPointFormat getUnitFixedPointFormat() {
+        if (null == unitFixedPointFormat) { unitFixedPointFormat = new FixedPointFormat(unitFormat, decimals, displayDecimals); }
+        return unitFixedPointFormat;
+    }
+
+    FixedPointFormat getUnitsFixedPointFormat() {
+        if (null == unitsFixedPointFormat) { unitsFixedPointFormat = unitsFormat == unitFormat ? getUnitFixedPointFormat() : new FixedPointFormat(unitsFormat, decimals, displayDecimals); }
+        return unitsFixedPointFormat;
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private FieldTemplate derive(final int predecimals, final int decimals, final int maxDisplayDecimals, final Locale locale, final boolean negativeNumbersAllowed, final UnitPos unitPosition, final String promptText) {
+        final FieldTemplate template = new FieldTemplate(baseFormat, unit, predecimals, decimals, maxDisplayDecimals, locale, negativeNumbersAllowed, unitPosition, promptText);
+        return null == internKey ? template : template.intern();
+    }
+
+    private static int clamp(final int min, final int max, final int value) {
+        if (value < min) { return min; }
+        if (value > max) { return max; }
+        return value;
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Key {
+        private final StandardType type;
+        private final Unit         physicalUnit;
+        private final String       unit;
+        private final String       units;
+        private final int          predecimals;
+        private final int          decimals;
+        private final int          maxDisplayDecimals;
+        private final Locale       locale;
+        private final boolean      negativeNumbersAllowed;
+        private final UnitPos      unitPosition;
+        private final String       promptText;
+        private final int          hash;
+
+
+        private Key(final FieldTemplate template) {
+            this.type                   = template.format.getType();
+            this.physicalUnit           = template.unit;
+            this.unit                   = template.format.getUnit();
+            this.units                  = template.format.getUnits();
+            this.predecimals            = template.predecimals;
+            this.decimals               = template.decimals;
+            this.maxDisplayDecimals     = template.maxDisplayDecimals;
+            this.locale                 = template.locale;
+            this.negativeNumbersAllowed = template.negativeNumbersAllowed;
+            this.unitPosition           = template.unitPosition;
+            this.promptText             = template.promptText;
+            this.hash                   = Objects.hash(type, unit, units, predecimals, decimals, maxDisplayDecimals, locale, negativeNumbersAllowed, unitPosition, promptText);
+        }
+
+
+        @Override public boolean equals(final Object o) {
+            if (this == o) { return true; }
+            if (!(o instanceof Key)) { return false; }
+            final Key other = (Key) o;
+            return type == other.type && physicalUnit == other.physicalUnit && predecimals == other.predecimals && decimals == other.decimals && maxDisplayDecimals == other.maxDisplayDecimals && negativeNumbersAllowed == other.negativeNumbersAllowed &&
+                   unitPosition == other.unitPosition && unit.equals(other.unit) && units.equals(other.units) && locale.equals(other.locale) && promptText.equals(other.promptText);
+        }
+
+        @Override public int hashCode() { return hash; }
+    }
+}
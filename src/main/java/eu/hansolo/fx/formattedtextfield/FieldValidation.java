@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.css.PseudoClass;
+import javafx.util.Duration;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+
+/**
+ * Runs the validators of a FormattedTextField on an executor whenever the
+ * value changes. Changes within the delay are debounced, a run that has been
+ * overtaken by a newer value is cancelled and its result is ignored.
+ * Created on first use, so fields without validators don't pay for it.
+ */
+final class FieldValidation {
+    static final         Executor                               DEFAULT_EXECUTOR     = createDefaultExecutor();
+    private static final PseudoClass                            INVALID_PSEUDO_CLASS = PseudoClass.getPseudoClass("invalid");
+    private static final PseudoClass                            PENDING_PSEUDO_CLASS = PseudoClass.getPseudoClass("validating");
+    private final        FormattedTextField                     field;
+    private final        ObservableList<ValueValidator>         validators;
+    private final        ReadOnlyObjectWrapper<ValidationState> state;
+    private final        ReadOnlyStringWrapper                  message;
+    private              Executor                               executor;
+    private              Duration                               delay;
+    private              PauseTransition                        debounce;
+    private              FutureTask<String>                     running;
+    private              long                                   generation;
+
+
+    // ******************** Constructors **************************************
+    FieldValidation(final FormattedTextField field) {
+        this.field      = field;
+        this.validators = FXCollections.observableArrayList();
+        this.state      = new ReadOnlyObjectWrapper<>(field, "validationState", ValidationState.VALID) {
+            @Override protected void invalidated() {
+                final ValidationState s = get();
+                field.pseudoClassStateChanged(INVALID_PSEUDO_CLASS, ValidationState.INVALID == s);
+                field.pseudoClassStateChanged(PENDING_PSEUDO_CLASS, ValidationState.PENDING == s);
+            }
+        };
+        this.message    = new ReadOnlyStringWrapper(field, "validationMessage");
+        this.executor   = DEFAULT_EXECUTOR;
+        this.delay      = Duration.ZERO;
+
+        validators.addListener((ListChangeListener<ValueValidator>) c -> validate());
+        field.valueProperty().addListener(o -> validate());
+    }
+
+
+    // ******************** Methods *******************************************
+    ObservableList<ValueValidator> getValidators() { return validators; }
+
+    ValidationState getState() { return state.get(); }
+    ReadOnlyObjectProperty<ValidationState> stateProperty() { return state.getReadOnlyProperty(); }
+
+    String getMessage() { return message.get(); }
+    ReadOnlyStringProperty messageProperty() { return message.getReadOnlyProperty(); }
+
+    Executor getExecutor() { return executor; }
+    void setExecutor(final Executor executor) { this.executor = null == executor ? DEFAULT_EXECUTOR : executor; }
+
+    Duration getDelay() { return delay; }
+    void setDelay(final Duration delay) {
+        this.delay = null == delay || delay.lessThan(Duration.ZERO) ? Duration.ZERO : delay;
+        if (null != debounce) { debounce.setDuration(this.delay); }
+    }
+
+    /**
+     * Cancels a pending or running validation and validates the current value.
+     */
+    void validate() {
+        generation++;
+        cancel();
+        if (validators.isEmpty()) {
+            complete(ValidationState.VALID, null);
+            return;
+        }
+        state.set(ValidationState.PENDING);
+        if (delay.greaterThan(Duration.ZERO)) {
+            if (null == debounce) {
+                debounce = new PauseTransition(delay);
+                debounce.setOnFinished(e -> submit());
+            }
+            debounce.playFromStart();
+        } else {
+            submit();
+        }
+    }
+
+    private void submit() {
+        final long             run   = generation;
+        final BigDecimal       value = field.getValue();
+        final ValueValidator[] chain = validators.toArray(new ValueValidator[0]);
+        final StandardType     type  = field.getFormat().getType();
+        running = new FutureTask<>(() -> check(chain, value, type)) {
+            @Override protected void done() {
+                if (isCancelled()) { return; }
+                String result;
+                try {
+                    result = get();
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    result = null == cause.getMessage() ? cause.toString() : cause.getMessage();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                final String text = result;
+                Platform.runLater(() -> {
+                    if (run != generation) { return; }
+                    running = null;
+                    complete(null == text ? ValidationState.VALID : ValidationState.INVALID, text);
+                });
+            }
+        };
+        executor.execute(running);
+    }
+
+    private void cancel() {
+        if (null != debounce) { debounce.stop(); }
+        if (null != running) {
+            running.cancel(true);
+            running = null;
+        }
+    }
+
+    private void complete(final ValidationState state, final String message) {
+        this.message.set(message);
+        this.state.set(state);
+    }
+
+    private static String check(final ValueValidator[] chain, final BigDecimal value, final StandardType type) throws Exception {
+        final long start = Metrics.start();
+        String result = null;
+        for (ValueValidator validator : chain) {
+            if (Thread.currentThread().isInterrupted()) { throw new InterruptedException(); }
+            result = validator.validate(value);
+            if (null != result) { break; }
+        }
+        Metrics.record(type, null == result ? FieldActivity.VALIDATION : FieldActivity.VALIDATION_FAILED, start);
+        return result;
+    }
+
+    // virtual threads where the runtime has them (Java 21+), daemon platform threads otherwise
+    private static Executor createDefaultExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "FormattedTextField-Validation");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.ParseException;
+
+
+/**
+ * Formats values that are stored as an unscaled long with a fixed scale
+ * (value = unscaled / 10^scale) the same way the given DecimalFormat formats
+ * the corresponding BigDecimal, but without creating a BigDecimal.
+ * Only the features used by the patterns of this library are supported:
+ * prefix, suffix, grouping, the digits of the locale and a fixed number of
+ * fraction digits.
+ * With a display scale below the scale format() truncates the fraction to
+ * the display scale.
+ */
+public final class FixedPointFormat {
+    public  static final int    MAX_DIGITS    = 18;
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+        1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+    private final int    scale;
+    private final int    displayScale;
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    private final int    groupingSize;
+    private final char   groupingSeparator;
+    private final char   decimalSeparator;
+    private final char   zeroDigit;
+
+
+    // ******************** Constructors **************************************
+    public FixedPointFormat(final DecimalFormat decimalFormat, final int scale) {
+        this(decimalFormat, scale, scale);
+    }
+    public FixedPointFormat(final DecimalFormat decimalFormat, final int scale, final int displayScale) {
+        if (scale < 0 || scale > MAX_DIGITS) { throw new IllegalArgumentException("scale must be between 0 and " + MAX_DIGITS); }
+        final DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+        this.scale             = scale;
+        this.displayScale      = Math.max(0, Math.min(scale, displayScale));
+        this.positivePrefix    = decimalFormat.getPositivePrefix();
+        this.positiveSuffix    = decimalFormat.getPositiveSuffix();
+        this.negativePrefix    = decimalFormat.getNegativePrefix();
+        this.negativeSuffix    = decimalFormat.getNegativeSuffix();
+        this.groupingSize      = decimalFormat.isGroupingUsed() ? decimalFormat.getGroupingSize() : 0;
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.decimalSeparator  = symbols.getDecimalSeparator();
+        this.zeroDigit         = symbols.getZeroDigit();
+    }
+
+
+    // ******************** Public Methods ************************************
+    public int getScale() { return scale; }
+
+    public int getDisplayScale() { return displayScale; }
+
+    public char getDecimalSeparator() { return decimalSeparator; }
+
+    public char getGroupingSeparator() { return groupingSeparator; }
+
+    /**
+     * Appends the formatted value including prefix, suffix and grouping.
+     */
+    public StringBuilder format(final long unscaled, final StringBuilder builder) {
+        try {
+            format(unscaled, (Appendable) builder);
+            return builder;
+        } catch (IOException e) {
+            // a StringBuilder doesn't throw
+            throw new UncheckedIOException(e);
+        }
+    }
+    public <A extends Appendable> A format(final long unscaled, final A appendable) throws IOException {
+        final long    shown    = toShown(unscaled);
+        final boolean negative = shown < 0;
+        appendable.append(negative ? negativePrefix : positivePrefix);
+        appendDigits(shown, displayScale, groupingSize, decimalSeparator, zeroDigit, appendable);
+        appendable.append(negative ? negativeSuffix : positiveSuffix);
+        return appendable;
+    }
+    /**
+     * Writes the formatted value into the given buffer starting at the given
+     * offset and returns the offset behind the last char written. The buffer
+     * must have room for getMaxLength() chars.
+     */
+    public int format(final long unscaled, final char[] buffer, final int offset) {
+        final long    shown    = toShown(unscaled);
+        final boolean negative = shown < 0;
+        int index = put(negative ? negativePrefix : positivePrefix, buffer, offset);
+        index = putDigits(shown, displayScale, groupingSize, decimalSeparator, zeroDigit, buffer, index);
+        return put(negative ? negativeSuffix : positiveSuffix, buffer, index);
+    }
+
+    /**
+     * Number of chars the longest formatted value can have.
+     */
+    public int getMaxLength() {
+        final int digits = MAX_DIGITS + 1;
+        return Math.max(negativePrefix.length(), positivePrefix.length()) + digits + (groupingSize > 0 ? digits / groupingSize : 0) + (displayScale > 0 ? 1 : 0) +
+               Math.max(negativeSuffix.length(), positiveSuffix.length());
+    }
+
+    /**
+     * Appends the value as it is shown while editing: no grouping, no unit,
+     * ASCII digits and the localized decimal separator.
+     */
+    public StringBuilder formatPlain(final long unscaled, final StringBuilder builder) {
+        if (unscaled < 0) { builder.append('-'); }
+        try {
+            appendDigits(unscaled, scale, 0, decimalSeparator, '0', builder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builder;
+    }
+
+    /**
+     * Returns true if the plural unit should be used, which is the case for
+     * values with a magnitude greater than one.
+     */
+    public boolean isPlural(final long unscaled) {
+        final long one = POWERS_OF_TEN[scale];
+        return unscaled > one || unscaled < -one;
+    }
+
+    /**
+     * Parses the leading number of the given text (optional minus, digits,
+     * grouping separators, decimal separator and fraction digits) into an
+     * unscaled long. Parsing stops at the first other character, surplus
+     * fraction digits are rounded half even.
+     */
+    public long parse(final CharSequence text) throws ParseException {
+        return parse(text, 0, scale, decimalSeparator, groupingSeparator, zeroDigit);
+    }
+
+
+    // ******************** Static Methods ************************************
+    public static long pow10(final int exponent) { return POWERS_OF_TEN[exponent]; }
+
+    public static long toUnscaled(final BigDecimal value, final int scale) {
+        return value.setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(final long unscaled, final int scale) {
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    public static double toDouble(final long unscaled, final int scale) {
+        return scale == 0 ? unscaled : (double) unscaled / POWERS_OF_TEN[scale];
+    }
+
+    public static long fromDouble(final double value, final int scale) {
+        return Math.round(value * POWERS_OF_TEN[scale]);
+    }
+
+    public static boolean fits(final int predecimals, final int decimals) {
+        return predecimals + decimals <= MAX_DIGITS;
+    }
+
+    /**
+     * Appends the plain text of the given value with the given decimal
+     * separator, without the copy a replace() on toPlainString() makes.
+     */
+    public static StringBuilder formatPlain(final BigDecimal value, final char decimalSeparator, final StringBuilder builder) {
+        // toString() would switch to exponential notation for small and high precision values
+        final String text = value.toPlainString();
+        if (decimalSeparator == '.') { return builder.append(text); }
+        for (int i = 0 ; i < text.length() ; i++) {
+            final char c = text.charAt(i);
+            builder.append(c == '.' ? decimalSeparator : c);
+        }
+        return builder;
+    }
+
+    public static long rescale(final long unscaled, final int fromScale, final int toScale) {
+        if (fromScale == toScale) { return unscaled; }
+        if (toScale > fromScale)  { return Math.multiplyExact(unscaled, POWERS_OF_TEN[toScale - fromScale]); }
+        final long divisor = POWERS_OF_TEN[fromScale - toScale];
+        return roundHalfEven(unscaled / divisor, unscaled % divisor, divisor);
+    }
+
+    public static long parse(final CharSequence text, final int scale, final char decimalSeparator, final char groupingSeparator) throws ParseException {
+        return parse(text, 0, scale, decimalSeparator, groupingSeparator);
+    }
+    public static long parse(final CharSequence text, final int start, final int scale, final char decimalSeparator, final char groupingSeparator) throws ParseException {
+        return parse(text, start, scale, decimalSeparator, groupingSeparator, '0');
+    }
+    /**
+     * Accepts ASCII digits as well as the digits starting at the given zero digit.
+     */
+    public static long parse(final CharSequence text, final int start, final int scale, final char decimalSeparator, final char groupingSeparator, final char zeroDigit) throws ParseException {
+        final int length   = null == text ? 0 : text.length();
+        int       index    = start;
+        boolean   negative = false;
+        if (index < length && text.charAt(index) == '-') {
+            negative = true;
+            index++;
+        }
+        long    integer   = 0;
+        int     digits    = 0;
+        boolean hasDigits = false;
+        while (index < length) {
+            final int digit = digit(text.charAt(index), zeroDigit);
+            if (digit >= 0) {
+                if (++digits > MAX_DIGITS) { throw new ParseException("Too many digits", index); }
+                integer   = integer * 10 + digit;
+                hasDigits = true;
+            } else if (text.charAt(index) != groupingSeparator) {
+                break;
+            }
+            index++;
+        }
+        long fraction       = 0;
+        int  fractionDigits = 0;
+        long remainder      = 0;
+        long remainderScale = 1;
+        if (index < length && text.charAt(index) == decimalSeparator) {
+            index++;
+            while (index < length) {
+                final int digit = digit(text.charAt(index), zeroDigit);
+                if (digit < 0) { break; }
+                if (fractionDigits < scale) {
+                    fraction = fraction * 10 + digit;
+                    fractionDigits++;
+                } else if (remainderScale < POWERS_OF_TEN[MAX_DIGITS]) {
+                    remainder      = remainder * 10 + digit;
+                    remainderScale *= 10;
+                } else if (digit != 0 && remainder % 10 == 0) {
+                    // keep a sticky digit so that a value above a tie is not rounded as a tie
+                    remainder++;
+                }
+                hasDigits = true;
+                index++;
+            }
+        }
+        if (!hasDigits) { throw new ParseException("Unparseable number: \"" + text + "\"", 0); }
+        if (digits + scale > MAX_DIGITS) { throw new ParseException("Value does not fit into " + MAX_DIGITS + " digits", 0); }
+
+        long unscaled = integer * POWERS_OF_TEN[scale] + fraction * POWERS_OF_TEN[scale - fractionDigits];
+        if (remainder != 0) { unscaled = roundHalfEven(unscaled, remainder, remainderScale); }
+        return negative ? -unscaled : unscaled;
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private long toShown(final long unscaled) { return displayScale == scale ? unscaled : unscaled / POWERS_OF_TEN[scale - displayScale]; }
+
+    private void appendDigits(final long unscaled, final int scale, final int grouping, final char separator, final char zero, final Appendable appendable) throws IOException {
+        final long divisor = POWERS_OF_TEN[scale];
+        long integer  = unscaled / divisor;
+        long fraction = unscaled % divisor;
+        if (unscaled < 0) {
+            integer  = -integer;
+            fraction = -fraction;
+        }
+        final int digits = countDigits(integer);
+        for (int i = digits - 1 ; i >= 0 ; i--) {
+            appendable.append((char) (zero + (integer / POWERS_OF_TEN[i]) % 10));
+            if (grouping > 0 && i > 0 && i % grouping == 0) { appendable.append(groupingSeparator); }
+        }
+        if (scale > 0) {
+            appendable.append(separator);
+            for (int i = scale - 1 ; i >= 0 ; i--) { appendable.append((char) (zero + (fraction / POWERS_OF_TEN[i]) % 10)); }
+        }
+    }
+
+    private int putDigits(final long unscaled, final int scale, final int grouping, final char separator, final char zero, final char[] buffer, final int offset) {
+        final long divisor = POWERS_OF_TEN[scale];
+        long integer  = unscaled / divisor;
+        long fraction = unscaled % divisor;
+        if (unscaled < 0) {
+            integer  = -integer;
+            fraction = -fraction;
+        }
+        int index = offset;
+        final int digits = countDigits(integer);
+        for (int i = digits - 1 ; i >= 0 ; i--) {
+            buffer[index++] = (char) (zero + (integer / POWERS_OF_TEN[i]) % 10);
+            if (grouping > 0 && i > 0 && i % grouping == 0) { buffer[index++] = groupingSeparator; }
+        }
+        if (scale > 0) {
+            buffer[index++] = separator;
+            for (int i = scale - 1 ; i >= 0 ; i--) { buffer[index++] = (char) (zero + (fraction / POWERS_OF_TEN[i]) % 10); }
+        }
+        return index;
+    }
+
+    private static int put(final String text, final char[] buffer, final int offset) {
+        text.getChars(0, text.length(), buffer, offset);
+        return offset + text.length();
+    }
+
+    private static int countDigits(final long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) { digits++; }
+        return digits;
+    }
+
+    /**
+     * Returns the value of an ASCII digit or of a digit starting at the given
+     * zero digit, -1 for other chars.
+     */
+    static int digit(final char c, final char zeroDigit) {
+        if (c >= '0' && c <= '9')                 { return c - '0'; }
+        if (c >= zeroDigit && c <= zeroDigit + 9) { return c - zeroDigit; }
+        return -1;
+    }
+
+    static long roundHalfEven(final long quotient, final long remainder, final long divisor) {
+        final long twice = Math.abs(remainder) * 2;
+        if (twice < divisor || (twice == divisor && (quotient & 1) == 0)) { return quotient; }
+        return quotient + (remainder < 0 ? -1 : 1);
+    }
+}
@@ -16,19 +16,31 @@
 
 package eu.hansolo.fx.formattedtextfield;
 
+import java.lang.ref.WeakReference;
 import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
 
 
-public class Format {
-    private StandardType  type;
-    private String        pattern;
-    private String        unit;
-    private String        units;
-    private String        prompt;
-    private boolean       hasMultipleUnits;
-    private DecimalFormat decimalFormat;
+/**
+ * Immutable description of a number format: type, pattern, unit, plural
+ * unit, prompt and locale. A Format can be shared by any number of fields
+ * and threads, the with methods return derived instances. Formats created
+ * with of(), intern() or the with methods are interned, so there is one
+ * instance per distinct specification.
+ */
+public final class Format {
+    private static final Map<Format, WeakReference<Format>> INTERNED = new WeakHashMap<>();
+    private final        StandardType                       type;
+    private final        String                             pattern;
+    private final        String                             unit;
+    private final        String                             units;
+    private final        String                             prompt;
+    private final        boolean                            hasMultipleUnits;
+    private final        Locale                             locale;
+    private final        int                                hash;
 
 
     // ******************** Constructors **************************************
@@ -54,17 +66,71 @@ public class Format {
         this(StandardType.NONE, pattern, unit, units, prompt, locale);
     }
     public Format(final StandardType type, final String pattern, final String unit, final String units, final String prompt, final Locale locale) {
+        if (null == type)    { throw new IllegalArgumentException("type cannot be null"); }
+        if (null == pattern) { throw new IllegalArgumentException("pattern cannot be null"); }
+        if (null == locale)  { throw new IllegalArgumentException("locale cannot be null"); }
         this.type             = type;
         this.pattern          = pattern;
-        this.unit             = unit;
-        this.units            = units;
-        this.prompt           = prompt;
-        this.hasMultipleUnits = !unit.equals(units);
-        this.decimalFormat    = new DecimalFormat(pattern, new DecimalFormatSymbols(locale));
+        this.unit             = null == unit ? "" : unit;
+        this.units            = null == units ? this.unit : units;
+        this.prompt           = null == prompt ? "" : prompt;
+        this.hasMultipleUnits = !this.unit.equals(this.units);
+        this.locale           = locale;
+        this.hash             = Objects.hash(type, pattern, this.unit, this.units, this.prompt, locale);
     }
 
 
     // ******************** Public Methods ************************************
+    public static Format of(final StandardType type) {
+        return new Format(type).intern();
+    }
+    public static Format of(final StandardType type, final Locale locale) {
+        return new Format(type, locale).intern();
+    }
+    public static Format of(final StandardType type, final String pattern, final String unit, final String units, final String prompt, final Locale locale) {
+        return new Format(type, pattern, unit, units, prompt, locale).intern();
+    }
+
+    /**
+     * Returns the shared instance with the same specification, which is this
+     * one if there is none yet. Interned formats can be collected once they
+     * are not used anymore.
+     */
+    public Format intern() {
+        synchronized (INTERNED) {
+            final WeakReference<Format> reference = INTERNED.get(this);
+            final Format                interned  = null == reference ? null : reference.get();
+            if (null != interned) { return interned; }
+            INTERNED.put(this, new WeakReference<>(this));
+            return this;
+        }
+    }
+
+    public Format withPattern(final String pattern) {
+        if (this.pattern.equals(pattern)) { return intern(); }
+        return of(type, pattern, unit, units, prompt, locale);
+    }
+
+    /**
+     * Returns a format with the given number of fraction digits and the
+     * integer part of the pattern of this format.
+     */
+    public Format withDecimals(final int decimals) {
+        final int    separator = pattern.indexOf('.');
+        final String integer   = separator < 0 ? pattern : pattern.substring(0, separator);
+        return withPattern(createPattern(integer, decimals));
+    }
+
+    public Format withLocale(final Locale locale) {
+        if (this.locale.equals(locale)) { return intern(); }
+        return of(type, pattern, unit, units, prompt, locale);
+    }
+
+    public Format withUnit(final String unit, final String units) {
+        if (this.unit.equals(unit) && this.units.equals(null == units ? unit : units)) { return intern(); }
+        return of(type, pattern, unit, units, prompt, locale);
+    }
+
     public StandardType getType() {
         return type;
     }
@@ -72,10 +138,6 @@ public class Format {
     public String getPattern() {
         return this.pattern;
     }
-    public void setPattern(final String pattern) {
-        this.pattern = pattern;
-        decimalFormat.applyPattern(pattern);
-    }
 
     public String getUnit() {
         return unit;
@@ -93,16 +155,64 @@ public class Format {
         return prompt;
     }
 
-    public DecimalFormat getDecimalFormat() {
-        return decimalFormat;
+    public Locale getLocale() {
+        return locale;
     }
 
-    public void setLocale(final Locale locale) {
-        decimalFormat.setDecimalFormatSymbols(new DecimalFormatSymbols(locale));
+    /**
+     * Returns a new DecimalFormat for the pattern and locale of this format,
+     * the caller owns it and may modify it.
+     */
+    public DecimalFormat getDecimalFormat() {
+        return (DecimalFormat) FormatCache.getDecimalFormat(type, pattern, locale).clone();
     }
 
+    /**
+     * Returns a new DecimalFormat for the pattern and the given locale, the
+     * caller owns it and may modify it.
+     */
     public DecimalFormat getDecimalFormatForLocale(final Locale locale) {
-        setLocale(locale);
-        return decimalFormat;
+        return (DecimalFormat) FormatCache.getDecimalFormat(type, pattern, locale).clone();
+    }
+
+    @Override public boolean equals(final Object o) {
+        if (this == o) { return true; }
+        if (!(o instanceof Format)) { return false; }
+        final Format other = (Format) o;
+        return type == other.type && pattern.equals(other.pattern) && unit.equals(other.unit) && units.equals(other.units) && prompt.equals(other.prompt) && locale.equals(other.locale);
+    }
+
+    @Override public int hashCode() { return hash; }
+
+
+    // ******************** Static Methods ************************************
+    static String createPattern(final StandardType type, final int decimals) {
+        final String integerPattern;
+        switch(type) {
+            case KM    :
+            case EURO  :
+            case DOLLAR:
+                integerPattern = "#,###,##0";
+                break;
+            default:
+                integerPattern = "0";
+                break;
+        }
+        return createPattern(integerPattern, decimals);
+    }
+    static String createPattern(final String integerPattern, final int decimals) {
+        if (decimals <= 0) { return integerPattern; }
+        final int           fractionDigits = Math.min(decimals, FieldTemplate.MAX_DECIMALS);
+        final StringBuilder patternBuilder = new StringBuilder(integerPattern.length() + 1 + fractionDigits).append(integerPattern).append('.');
+        for (int i = 0 ; i < fractionDigits ; i++) { patternBuilder.append('0'); }
+        return patternBuilder.toString();
+    }
+
+    static String createUnitPattern(final String pattern, final String unit, final UnitPos unitPos) {
+        switch(unitPos) {
+            case IN_FRONT: return (unit.isEmpty() ? "" : ("'" + unit + "' ")) + pattern;
+            case AFTER   :
+            default      : return pattern + (unit.isEmpty() ? "" : ("' " + unit + "'"));
+        }
     }
 }
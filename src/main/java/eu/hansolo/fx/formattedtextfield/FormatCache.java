@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Process wide, bounded (LRU) cache of compiled DecimalFormat instances and
+ * DecimalFormatSymbols. Formats are keyed by type, pattern (which carries the
+ * number of decimals), locale, unit position and unit.
+ * The returned instances are shared between all fields and templates and
+ * must not be modified, so the cache is not part of the API. DecimalFormat
+ * is not thread safe, so the cached formats are meant to be used on the
+ * JavaFX application thread or cloned before use elsewhere.
+ */
+final class FormatCache {
+    static final         int                                     DEFAULT_MAX_SIZE = 256;
+    private static final Object                                  LOCK             = new Object();
+    private static final Map<Locale, DecimalFormatSymbols>       SYMBOLS          = new ConcurrentHashMap<>();
+    private static final AtomicLong                              HITS             = new AtomicLong();
+    private static final AtomicLong                              MISSES           = new AtomicLong();
+    private static final AtomicLong                              EVICTIONS        = new AtomicLong();
+    private static       int                                     maxSize          = DEFAULT_MAX_SIZE;
+    private static final LinkedHashMap<Key, DecimalFormat>       FORMATS          = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(final Map.Entry<Key, DecimalFormat> eldest) {
+            if (size() > maxSize) {
+                EVICTIONS.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+
+    // ******************** Constructors **************************************
+    private FormatCache() {}
+
+
+    // ******************** Methods *******************************************
+    static DecimalFormatSymbols getDecimalFormatSymbols(final Locale locale) {
+        return SYMBOLS.computeIfAbsent(locale, DecimalFormatSymbols::new);
+    }
+
+    static DecimalFormat getDecimalFormat(final StandardType type, final String pattern, final Locale locale) {
+        return getDecimalFormat(type, pattern, locale, null, "");
+    }
+    static DecimalFormat getDecimalFormat(final StandardType type, final String pattern, final Locale locale, final UnitPos unitPos, final String unit) {
+        final Key key = new Key(type, pattern, locale, unitPos, unit);
+        synchronized (LOCK) {
+            DecimalFormat decimalFormat = FORMATS.get(key);
+            if (null != decimalFormat) {
+                HITS.incrementAndGet();
+                return decimalFormat;
+            }
+            MISSES.incrementAndGet();
+            decimalFormat = new DecimalFormat(null == unitPos ? pattern : Format.createUnitPattern(pattern, unit, unitPos), getDecimalFormatSymbols(locale));
+            FORMATS.put(key, decimalFormat);
+            return decimalFormat;
+        }
+    }
+
+    static long getHits() { return HITS.get(); }
+
+    static long getMisses() { return MISSES.get(); }
+
+    static long getEvictions() { return EVICTIONS.get(); }
+
+    static int size() {
+        synchronized (LOCK) { return FORMATS.size(); }
+    }
+
+    static int getMaxSize() {
+        synchronized (LOCK) { return maxSize; }
+    }
+    static void setMaxSize(final int size) {
+        if (size < 1) { throw new IllegalArgumentException("size must be at least 1"); }
+        synchronized (LOCK) {
+            maxSize = size;
+            while (FORMATS.size() > maxSize) {
+                FORMATS.remove(FORMATS.keySet().iterator().next());
+                EVICTIONS.incrementAndGet();
+            }
+        }
+    }
+
+    static void clear() {
+        synchronized (LOCK) { FORMATS.clear(); }
+        SYMBOLS.clear();
+        HITS.set(0);
+        MISSES.set(0);
+        EVICTIONS.set(0);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Key {
+        private final StandardType type;
+        private final String       pattern;
+        private final Locale       locale;
+        private final UnitPos      unitPos;
+        private final String       unit;
+        private final int          hash;
+
+
+        private Key(final StandardType type, final String pattern, final Locale locale, final UnitPos unitPos, final String unit) {
+            this.type    = type;
+            this.pattern = pattern;
+            this.locale  = locale;
+            this.unitPos = unitPos;
+            this.unit    = unit;
+            this.hash    = Objects.hash(type, pattern, locale, unitPos, unit);
+        }
+
+
+        @Override public boolean equals(final Object o) {
+            if (this == o) { return true; }
+            if (!(o instanceof Key)) { return false; }
+            final Key other = (Key) o;
+            return type == other.type && unitPos == other.unitPos && pattern.equals(other.pattern) && locale.equals(other.locale) && unit.equals(other.unit);
+        }
+
+        @Override public int hashCode() { return hash; }
+    }
+}
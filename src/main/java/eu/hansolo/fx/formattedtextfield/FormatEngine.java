@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+
+/**
+ * Formats and parses numbers exactly like a FormattedTextField with the same
+ * configuration, but without any dependency on JavaFX.
+ * Instances are immutable and can be used from many threads at the same time,
+ * every thread works on its own DecimalFormat instances.
+ * The format() methods that write into a StringBuilder, Appendable or char[]
+ * don't create intermediate objects for unscaled long values. BigDecimal
+ * values that fit into a long with the decimals of the engine only create
+ * the BigInteger of their unscaled value, but no strings.
+ */
+public final class FormatEngine {
+    private final StandardType                type;
+    private final String                      pattern;
+    private final String                      unit;
+    private final String                      units;
+    private final boolean                     hasMultipleUnits;
+    private final int                         decimals;
+    private final int                         displayDecimals;
+    private final Locale                      locale;
+    private final UnitPos                     unitPos;
+    private final boolean                     negativeNumbersAllowed;
+    private final char                        decimalSeparator;
+    private final DecimalParser               parser;
+    private final ThreadLocal<DecimalFormat[]> formats;
+    private final FixedPointFormat            unitFixedPointFormat;
+    private final FixedPointFormat            unitsFixedPointFormat;
+
+
+    // ******************** Constructors **************************************
+    public FormatEngine(final Format format, final int decimals, final Locale locale) {
+        this(format, decimals, locale, UnitPos.AFTER, false);
+    }
+    public FormatEngine(final Format format, final int decimals, final Locale locale, final boolean negativeNumbersAllowed) {
+        this(format, decimals, locale, UnitPos.AFTER, negativeNumbersAllowed);
+    }
+    public FormatEngine(final Format format, final int decimals, final Locale locale, final UnitPos unitPos, final boolean negativeNumbersAllowed) {
+        this(format, decimals, decimals, locale, unitPos, negativeNumbersAllowed);
+    }
+    public FormatEngine(final Format format, final int decimals, final int displayDecimals, final Locale locale, final UnitPos unitPos, final boolean negativeNumbersAllowed) {
+        this.type                   = format.getType();
+        this.decimals               = Math.max(0, Math.min(FieldTemplate.MAX_DECIMALS, decimals));
+        this.displayDecimals        = Math.max(0, Math.min(this.decimals, displayDecimals));
+        this.pattern                = Format.createPattern(type, this.displayDecimals);
+        this.unit                   = format.getUnit();
+        this.units                  = format.getUnits();
+        this.hasMultipleUnits       = format.hasMultipleUnits();
+        this.locale                 = locale;
+        this.unitPos                = null == unitPos ? UnitPos.AFTER : unitPos;
+        this.negativeNumbersAllowed = negativeNumbersAllowed;
+
+        final DecimalFormatSymbols symbols           = FormatCache.getDecimalFormatSymbols(locale);
+        final DecimalFormat        sharedUnitFormat  = FormatCache.getDecimalFormat(type, pattern, locale, this.unitPos, unit);
+        final DecimalFormat        sharedUnitsFormat = hasMultipleUnits ? FormatCache.getDecimalFormat(type, pattern, locale, this.unitPos, units) : sharedUnitFormat;
+        this.decimalSeparator      = symbols.getDecimalSeparator();
+        this.parser                = new DecimalParser(FormatCache.getDecimalFormat(type, pattern, locale), sharedUnitFormat, sharedUnitsFormat);
+        this.unitFixedPointFormat  = this.decimals <= FixedPointFormat.MAX_DIGITS ? new FixedPointFormat(sharedUnitFormat, this.decimals, this.displayDecimals) : null;
+        this.unitsFixedPointFormat = null != unitFixedPointFormat && hasMultipleUnits ? new FixedPointFormat(sharedUnitsFormat, this.decimals, this.displayDecimals) : unitFixedPointFormat;
+        this.formats               = ThreadLocal.withInitial(() -> {
+            final DecimalFormat unitFormat  = new DecimalFormat(Format.createUnitPattern(pattern, unit, this.unitPos), symbols);
+            final DecimalFormat unitsFormat = hasMultipleUnits ? new DecimalFormat(Format.createUnitPattern(pattern, units, this.unitPos), symbols) : unitFormat;
+            return new DecimalFormat[] { unitFormat, unitsFormat };
+        });
+    }
+
+
+    // ******************** Public Methods ************************************
+    public StandardType getType() { return type; }
+
+    public String getPattern() { return pattern; }
+
+    public int getDecimals() { return decimals; }
+
+    public int getDisplayDecimals() { return displayDecimals; }
+
+    public Locale getLocale() { return locale; }
+
+    public UnitPos getUnitPosition() { return unitPos; }
+
+    public boolean getNegativeNumbersAllowed() { return negativeNumbersAllowed; }
+
+    /**
+     * Returns the text the control shows for the given value when it is not
+     * focused, including the unit or plural units. The number is truncated
+     * to the display decimals.
+     */
+    public String format(final BigDecimal value) {
+        if (null == value) { return null; }
+        final BigDecimal      v = !negativeNumbersAllowed && value.signum() < 0 ? BigDecimal.ZERO : value;
+        final BigDecimal      d = displayDecimals < decimals && v.scale() > displayDecimals ? v.setScale(displayDecimals, RoundingMode.DOWN) : v;
+        final DecimalFormat[] f = formats.get();
+        return (usesUnits(v) ? f[1] : f[0]).format(d);
+    }
+    public String[] format(final BigDecimal[] values) {
+        final String[] result = new String[values.length];
+        for (int i = 0 ; i < values.length ; i++) { result[i] = format(values[i]); }
+        return result;
+    }
+    public String[] formatParallel(final BigDecimal[] values) {
+        final String[] result = new String[values.length];
+        Arrays.parallelSetAll(result, i -> format(values[i]));
+        return result;
+    }
+    public Stream<String> format(final Stream<BigDecimal> values) {
+        return values.map(this::format);
+    }
+
+    /**
+     * Appends the text format() returns for the given value, nothing for null.
+     */
+    public StringBuilder format(final BigDecimal value, final StringBuilder builder) {
+        try {
+            format(value, (Appendable) builder);
+            return builder;
+        } catch (IOException e) {
+            // a StringBuilder doesn't throw
+            throw new UncheckedIOException(e);
+        }
+    }
+    public <A extends Appendable> A format(final BigDecimal value, final A appendable) throws IOException {
+        if (null == value) { return appendable; }
+        if (!fits(value)) {
+            appendable.append(format(value));
+            return appendable;
+        }
+        return format(unscaled(value), value.scale(), appendable);
+    }
+    /**
+     * Writes the text format() returns for the given value into the buffer
+     * starting at the given offset and returns the offset behind the last
+     * char written. Values that fit into a long with the decimals of the
+     * engine need getMaxLength() chars at most.
+     */
+    public int format(final BigDecimal value, final char[] buffer, final int offset) {
+        if (null == value) { return offset; }
+        if (!fits(value)) { return put(format(value), buffer, offset); }
+        return format(unscaled(value), value.scale(), buffer, offset);
+    }
+
+    /**
+     * Appends the text format() returns for the value unscaled / 10^scale.
+     */
+    public StringBuilder format(final long unscaled, final int scale, final StringBuilder builder) {
+        try {
+            format(unscaled, scale, (Appendable) builder);
+            return builder;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    public <A extends Appendable> A format(final long unscaled, final int scale, final A appendable) throws IOException {
+        if (!fits(unscaled, scale)) {
+            appendable.append(format(BigDecimal.valueOf(unscaled, scale)));
+            return appendable;
+        }
+        final long clamped = clamp(unscaled);
+        return formatFor(clamped, scale).format(toScale(clamped, scale), appendable);
+    }
+    public int format(final long unscaled, final int scale, final char[] buffer, final int offset) {
+        if (!fits(unscaled, scale)) { return put(format(BigDecimal.valueOf(unscaled, scale)), buffer, offset); }
+        final long clamped = clamp(unscaled);
+        return formatFor(clamped, scale).format(toScale(clamped, scale), buffer, offset);
+    }
+
+    /**
+     * Number of chars the longest text of a value that fits into a long with
+     * the decimals of the engine can have.
+     */
+    public int getMaxLength() {
+        if (null == unitFixedPointFormat) { return 0; }
+        return Math.max(unitFixedPointFormat.getMaxLength(), unitsFixedPointFormat.getMaxLength());
+    }
+
+    /**
+     * Parses the given text the same way the control does on focus loss.
+     */
+    public BigDecimal parse(final CharSequence text) throws ParseException {
+        if (null == text || text.length() == 0) { return null; }
+        return parser.parse(text);
+    }
+    /**
+     * Parses all given texts, entries that cannot be parsed result in null.
+     */
+    public BigDecimal[] parse(final CharSequence[] texts) {
+        final BigDecimal[] result = new BigDecimal[texts.length];
+        for (int i = 0 ; i < texts.length ; i++) { result[i] = parseOrNull(texts[i]); }
+        return result;
+    }
+    public BigDecimal[] parseParallel(final CharSequence[] texts) {
+        final BigDecimal[] result = new BigDecimal[texts.length];
+        Arrays.parallelSetAll(result, i -> parseOrNull(texts[i]));
+        return result;
+    }
+    public Stream<BigDecimal> parse(final Stream<? extends CharSequence> texts) {
+        return texts.map(this::parseOrNull);
+    }
+
+    /**
+     * Returns the plain text the control shows for the given value while it is
+     * focused (no grouping, no unit, localized decimal separator, all digits).
+     */
+    public String toText(final BigDecimal value) {
+        if (null == value) { return null; }
+        return FixedPointFormat.formatPlain(value, decimalSeparator, new StringBuilder(value.precision() + 2)).toString();
+    }
+    public StringBuilder toText(final BigDecimal value, final StringBuilder builder) {
+        return null == value ? builder : FixedPointFormat.formatPlain(value, decimalSeparator, builder);
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private boolean usesUnits(final BigDecimal value) {
+        return hasMultipleUnits && (value.compareTo(BigDecimal.ONE) > 0 || value.compareTo(BigDecimal.ONE.negate()) < 0);
+    }
+
+    private boolean fits(final BigDecimal value) {
+        final int scale = value.scale();
+        if (null == unitFixedPointFormat || scale < 0 || scale > FixedPointFormat.MAX_DIGITS || value.precision() > FixedPointFormat.MAX_DIGITS) { return false; }
+        return scale >= decimals || value.precision() - scale + decimals <= FixedPointFormat.MAX_DIGITS;
+    }
+
+    private boolean fits(final long unscaled, final int scale) {
+        if (null == unitFixedPointFormat || scale < 0 || scale > FixedPointFormat.MAX_DIGITS || unscaled == Long.MIN_VALUE) { return false; }
+        if (scale < decimals) { return Math.abs(unscaled) <= Long.MAX_VALUE / FixedPointFormat.pow10(decimals - scale); }
+        // DecimalFormat keeps the minus sign of negative values that are rounded to zero
+        return unscaled >= 0 || !negativeNumbersAllowed || toScale(unscaled, scale) != 0;
+    }
+
+    private static long unscaled(final BigDecimal value) {
+        // fits() checked the precision, so the unscaled value has at most 18 digits
+        return value.unscaledValue().longValue();
+    }
+
+    private long clamp(final long unscaled) { return !negativeNumbersAllowed && unscaled < 0 ? 0 : unscaled; }
+
+    /**
+     * Rescales to the decimals of the engine the same way format() does,
+     * surplus digits are truncated if the display decimals are lower and
+     * rounded half even otherwise.
+     */
+    private long toScale(final long unscaled, final int scale) {
+        if (scale <= decimals) { return unscaled * FixedPointFormat.pow10(decimals - scale); }
+        if (displayDecimals < decimals) { return unscaled / FixedPointFormat.pow10(scale - decimals); }
+        return FixedPointFormat.rescale(unscaled, scale, decimals);
+    }
+
+    /**
+     * Same plural rule as usesUnits() for the value unscaled / 10^scale.
+     */
+    private FixedPointFormat formatFor(final long unscaled, final int scale) {
+        final long one = FixedPointFormat.pow10(scale);
+        return hasMultipleUnits && (unscaled > one || unscaled < -one) ? unitsFixedPointFormat : unitFixedPointFormat;
+    }
+
+    private static int put(final String text, final char[] buffer, final int offset) {
+        text.getChars(0, text.length(), buffer, offset);
+        return offset + text.length();
+    }
+
+    private BigDecimal parseOrNull(final CharSequence text) {
+        try {
+            return parse(text);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+}
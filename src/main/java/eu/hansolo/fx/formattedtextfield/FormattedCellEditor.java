@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import javafx.scene.control.Cell;
+import javafx.scene.input.KeyEvent;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+
+/**
+ * Shared by all cells created by one cell factory. Non editing cells are
+ * rendered as plain text using a FormatEngine, and a single FormattedTextField
+ * is lent to whichever cell is currently being edited.
+ */
+public final class FormattedCellEditor {
+    private final Format             format;
+    private final int                predecimals;
+    private final int                decimals;
+    private final Locale             locale;
+    private final boolean            negativeNumbersAllowed;
+    private final UnitPos            unitPosition;
+    private final FormatEngine       engine;
+    private       FormattedTextField editor;
+    private       Cell<BigDecimal>   owner;
+
+
+    // ******************** Constructors **************************************
+    public FormattedCellEditor(final Format format, final int decimals, final Locale locale) {
+        this(format, FieldTemplate.MAX_PRE_DECIMALS, decimals, locale, false, UnitPos.AFTER);
+    }
+    public FormattedCellEditor(final Format format, final int predecimals, final int decimals, final Locale locale, final boolean negativeNumbersAllowed) {
+        this(format, predecimals, decimals, locale, negativeNumbersAllowed, UnitPos.AFTER);
+    }
+    public FormattedCellEditor(final Format format, final int predecimals, final int decimals, final Locale locale, final boolean negativeNumbersAllowed, final UnitPos unitPosition) {
+        this.format                 = format;
+        this.predecimals            = predecimals;
+        this.decimals               = decimals;
+        this.locale                 = locale;
+        this.negativeNumbersAllowed = negativeNumbersAllowed;
+        this.unitPosition           = unitPosition;
+        this.engine                 = new FormatEngine(format, decimals, locale, unitPosition, negativeNumbersAllowed);
+    }
+
+
+    // ******************** Public Methods ************************************
+    public FormatEngine getEngine() { return engine; }
+
+    public String toString(final BigDecimal value) { return engine.format(value); }
+
+    /**
+     * Returns the editor, it is created on first use.
+     */
+    public FormattedTextField getEditor() {
+        if (null == editor) {
+            editor = new FormattedTextField(format, predecimals, decimals, locale, negativeNumbersAllowed);
+            editor.setUnitPosition(unitPosition);
+            editor.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+                if (null == owner) { return; }
+                switch (e.getCode()) {
+                    case ENTER:
+                        final Cell<BigDecimal> cell = owner;
+                        if (editor.getText().isEmpty()) {
+                            editor.setValue(null);
+                        } else {
+                            editor.parseAndFormat();
+                        }
+                        cell.commitEdit(editor.getValue());
+                        e.consume();
+                        break;
+                    case ESCAPE:
+                        owner.cancelEdit();
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            });
+        }
+        return editor;
+    }
+
+
+    // ******************** Package Methods ***********************************
+    void startEdit(final Cell<BigDecimal> cell) {
+        if (null != owner && owner != cell && owner.isEditing()) { owner.cancelEdit(); }
+        owner = cell;
+        final FormattedTextField editor = getEditor();
+        final BigDecimal         item   = cell.getItem();
+        editor.setValue(item);
+        if (null == item) { editor.clear(); }
+        cell.setText(null);
+        cell.setGraphic(editor);
+        editor.requestFocus();
+        editor.selectAll();
+    }
+
+    void stopEdit(final Cell<BigDecimal> cell) {
+        if (owner == cell) { owner = null; }
+        render(cell, cell.getItem(), cell.isEmpty());
+    }
+
+    void render(final Cell<BigDecimal> cell, final BigDecimal item, final boolean empty) {
+        if (empty) {
+            cell.setText(null);
+            cell.setGraphic(null);
+        } else if (cell.isEditing() && owner == cell) {
+            cell.setText(null);
+            cell.setGraphic(editor);
+        } else {
+            cell.setText(engine.format(item));
+            cell.setGraphic(null);
+        }
+    }
+}
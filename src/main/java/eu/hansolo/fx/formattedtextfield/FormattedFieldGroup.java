@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+
+/**
+ * Owns the locale, the number of decimals, the negative numbers policy and
+ * the unit position of a number of fields. A change is resolved once per
+ * distinct field template and then applied to all members in one pass, every
+ * field is reformatted exactly once and never shows an intermediate state.
+ * Display units are set per dimension and apply to all members whose unit
+ * has that dimension. Values copied from a spreadsheet are pasted into
+ * consecutive members.
+ */
+public class FormattedFieldGroup {
+    private final List<FormattedTextField> fields;
+    private final Map<Dimension, Unit>     displayUnits;
+    private       Locale                   locale;
+    private       int                      decimals;
+    private       boolean                  negativeNumbersAllowed;
+    private       UnitPos                  unitPosition;
+    private       Consumer<PasteResult>    onPaste;
+    private       ValuePublisher           publisher;
+
+
+    // ******************** Constructors **************************************
+    public FormattedFieldGroup() {
+        this(Locale.getDefault(), 2, false, UnitPos.AFTER);
+    }
+    public FormattedFieldGroup(final Locale locale, final int decimals) {
+        this(locale, decimals, false, UnitPos.AFTER);
+    }
+    public FormattedFieldGroup(final Locale locale, final int decimals, final boolean negativeNumbersAllowed, final UnitPos unitPosition) {
+        if (null == locale) { throw new IllegalArgumentException("locale cannot be null"); }
+        if (decimals < 0)   { throw new IllegalArgumentException("decimals cannot be negative"); }
+        this.fields                 = new ArrayList<>();
+        this.displayUnits           = new HashMap<>();
+        this.locale                 = locale;
+        this.decimals               = decimals;
+        this.negativeNumbersAllowed = negativeNumbersAllowed;
+        this.unitPosition           = null == unitPosition ? UnitPos.AFTER : unitPosition;
+    }
+
+
+    // ******************** Public Methods ************************************
+    /**
+     * Adds the given fields and applies the configuration of the group to them.
+     */
+    public void add(final FormattedTextField... fields) {
+        final List<FormattedTextField> added = new ArrayList<>(fields.length);
+        for (FormattedTextField field : fields) {
+            if (null != field && !this.fields.contains(field) && !added.contains(field)) { added.add(field); }
+        }
+        apply(added);
+        for (FormattedTextField field : added) {
+            applyDisplayUnit(field);
+            field.setGroup(this);
+            if (null != publisher) { field.publishValues(); }
+        }
+        this.fields.addAll(added);
+    }
+    public void addAll(final Collection<? extends FormattedTextField> fields) {
+        add(fields.toArray(new FormattedTextField[0]));
+    }
+
+    public boolean remove(final FormattedTextField field) {
+        if (!fields.remove(field)) { return false; }
+        if (field.getGroup() == this) { field.setGroup(null); }
+        return true;
+    }
+
+    public void clear() {
+        for (FormattedTextField field : fields) {
+            if (field.getGroup() == this) { field.setGroup(null); }
+        }
+        fields.clear();
+    }
+
+    public List<FormattedTextField> getFields() { return Collections.unmodifiableList(fields); }
+
+    public int size() { return fields.size(); }
+
+    public Locale getLocale() { return locale; }
+    public void setLocale(final Locale locale) { configure(locale, decimals, negativeNumbersAllowed, unitPosition); }
+
+    public int getDecimals() { return decimals; }
+    public void setDecimals(final int decimals) { configure(locale, decimals, negativeNumbersAllowed, unitPosition); }
+
+    public boolean getNegativeNumbersAllowed() { return negativeNumbersAllowed; }
+    public void setNegativeNumbersAllowed(final boolean negativeNumbersAllowed) { configure(locale, decimals, negativeNumbersAllowed, unitPosition); }
+
+    public UnitPos getUnitPosition() { return unitPosition; }
+    public void setUnitPosition(final UnitPos unitPosition) { configure(locale, decimals, negativeNumbersAllowed, unitPosition); }
+
+    public Unit getDisplayUnit(final Dimension dimension) { return displayUnits.get(dimension); }
+    /**
+     * Shows the values of all members with a unit of the dimension of the
+     * given unit in that unit, also of members that are added later. The
+     * values stay in the units of their fields.
+     */
+    public void setDisplayUnit(final Unit displayUnit) {
+        if (null == displayUnit) { throw new IllegalArgumentException("displayUnit cannot be null"); }
+        displayUnits.put(displayUnit.getDimension(), displayUnit);
+        for (FormattedTextField field : fields) { applyDisplayUnit(field); }
+    }
+    /**
+     * Shows the members with a unit of the given dimension in their own unit again.
+     */
+    public void resetDisplayUnit(final Dimension dimension) {
+        if (null == displayUnits.remove(dimension)) { return; }
+        for (FormattedTextField field : fields) {
+            if (null != field.getUnit() && field.getUnit().getDimension() == dimension) { field.setDisplayUnit(null); }
+        }
+    }
+
+    /**
+     * Pastes tab and newline separated values row by row into the given member
+     * and the members that follow it. All values are parsed in parallel with
+     * the locale, grouping separator and unit of their field and then applied
+     * in one pass. Values that cannot be parsed leave their field unchanged
+     * and are reported in the result, which is passed to the on paste
+     * handler as well.
+     */
+    public PasteResult paste(final FormattedTextField start, final String text) {
+        final int index = fields.indexOf(start);
+        if (index < 0) { throw new IllegalArgumentException("field is not a member of this group"); }
+        final PasteResult result = BulkPaste.paste(fields.subList(index, fields.size()), null == text ? "" : text);
+        if (null != onPaste) { onPaste.accept(result); }
+        return result;
+    }
+
+    public Consumer<PasteResult> getOnPaste() { return onPaste; }
+    /**
+     * Called with the result of every paste into the members, e.g. to show
+     * the values that could not be parsed.
+     */
+    public void setOnPaste(final Consumer<PasteResult> onPaste) { this.onPaste = onPaste; }
+
+    /**
+     * Publishes the committed values of all members, fields that are added
+     * later included.
+     */
+    public ValuePublisher getValuePublisher() {
+        if (null == publisher) {
+            publisher = new ValuePublisher();
+            for (FormattedTextField field : fields) { field.publishValues(); }
+        }
+        return publisher;
+    }
+
+    /**
+     * Changes all settings at once and applies them to all members in one pass.
+     * If a member in fixed point mode cannot take the new number of decimals
+     * an IllegalArgumentException is thrown before any field has been changed.
+     */
+    public void configure(final Locale locale, final int decimals, final boolean negativeNumbersAllowed, final UnitPos unitPosition) {
+        if (null == locale) { throw new IllegalArgumentException("locale cannot be null"); }
+        if (decimals < 0)   { throw new IllegalArgumentException("decimals cannot be negative"); }
+        final Locale  oldLocale                 = this.locale;
+        final int     oldDecimals               = this.decimals;
+        final boolean oldNegativeNumbersAllowed = this.negativeNumbersAllowed;
+        final UnitPos oldUnitPosition           = this.unitPosition;
+        this.locale                 = locale;
+        this.decimals               = decimals;
+        this.negativeNumbersAllowed = negativeNumbersAllowed;
+        this.unitPosition           = null == unitPosition ? UnitPos.AFTER : unitPosition;
+        try {
+            apply(fields);
+        } catch (IllegalArgumentException e) {
+            this.locale                 = oldLocale;
+            this.decimals               = oldDecimals;
+            this.negativeNumbersAllowed = oldNegativeNumbersAllowed;
+            this.unitPosition           = oldUnitPosition;
+            throw e;
+        }
+    }
+
+
+    // ******************** Package Methods ***********************************
+    ValuePublisher peekValuePublisher() { return publisher; }
+
+
+    // ******************** Private Methods ***********************************
+    private void applyDisplayUnit(final FormattedTextField field) {
+        final Unit unit = field.getUnit();
+        if (null == unit) { return; }
+        final Unit displayUnit = displayUnits.get(unit.getDimension());
+        if (null != displayUnit) { field.setDisplayUnit(displayUnit); }
+    }
+
+    private void apply(final List<FormattedTextField> members) {
+        // fields that share a template also share the derived one
+        final Map<FieldTemplate, FieldTemplate> derived   = new IdentityHashMap<>();
+        final FieldTemplate[]                   templates = new FieldTemplate[members.size()];
+        for (int i = 0 ; i < templates.length ; i++) {
+            final FormattedTextField field    = members.get(i);
+            final FieldTemplate      template = derived.computeIfAbsent(field.getTemplate(), t -> t.with(decimals, locale, negativeNumbersAllowed, unitPosition));
+            if (field.isFixedPoint() && !FixedPointFormat.fits(template.getPreDecimals(), template.getDecimals())) {
+                throw new IllegalArgumentException("Fixed point mode needs predecimals + decimals <= " + FixedPointFormat.MAX_DIGITS);
+            }
+            templates[i] = template;
+        }
+        for (int i = 0 ; i < templates.length ; i++) { members.get(i).setTemplate(templates[i]); }
+    }
+}
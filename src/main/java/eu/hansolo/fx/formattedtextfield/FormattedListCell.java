@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.util.Callback;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+
+public class FormattedListCell extends ListCell<BigDecimal> {
+    private final FormattedCellEditor cellEditor;
+
+
+    // ******************** Constructors **************************************
+    public FormattedListCell(final FormattedCellEditor cellEditor) {
+        this.cellEditor = cellEditor;
+        getStyleClass().add("formatted-list-cell");
+    }
+
+
+    // ******************** Public Methods ************************************
+    public static Callback<ListView<BigDecimal>, ListCell<BigDecimal>> forListView(final Format format, final int decimals, final Locale locale) {
+        return forListView(new FormattedCellEditor(format, decimals, locale));
+    }
+    public static Callback<ListView<BigDecimal>, ListCell<BigDecimal>> forListView(final FormattedCellEditor cellEditor) {
+        return listView -> new FormattedListCell(cellEditor);
+    }
+
+    public FormattedCellEditor getCellEditor() { return cellEditor; }
+
+    @Override public void startEdit() {
+        if (!isEditable() || !getListView().isEditable()) { return; }
+        super.startEdit();
+        if (isEditing()) { cellEditor.startEdit(this); }
+    }
+
+    @Override public void cancelEdit() {
+        super.cancelEdit();
+        cellEditor.stopEdit(this);
+    }
+
+    @Override public void commitEdit(final BigDecimal value) {
+        super.commitEdit(value);
+        cellEditor.stopEdit(this);
+    }
+
+    @Override protected void updateItem(final BigDecimal item, final boolean empty) {
+        super.updateItem(item, empty);
+        cellEditor.render(this, item, empty);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.ReadOnlyLongWrapper;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Control;
+import javafx.scene.control.Skin;
+
+import java.math.BigDecimal;
+
+
+/**
+ * Shows and edits a large matrix of numbers that is stored column by column
+ * in NumberColumns. Only the visible cells are backed by nodes and a single
+ * FormattedTextField is lent to the cell that is being edited, so the number
+ * of cells is only limited by the memory of the column buffers.
+ * The buffers are not observed, call refresh() after changing them directly.
+ */
+public class FormattedNumberGrid extends Control {
+    private static       String                       userAgentStyleSheet;
+    private final        ObservableList<NumberColumn> columns;
+    private final        IntegerProperty              rowCount;
+    private final        DoubleProperty               rowHeight;
+    private final        BooleanProperty              editable;
+    private final        ReadOnlyIntegerWrapper       focusedRow;
+    private final        ReadOnlyIntegerWrapper       focusedColumn;
+    private final        ReadOnlyIntegerWrapper       editingRow;
+    private final        ReadOnlyIntegerWrapper       editingColumn;
+    private final        ReadOnlyLongWrapper          revision;
+
+
+    // ******************** Constructors **************************************
+    public FormattedNumberGrid() {
+        this(0);
+    }
+    public FormattedNumberGrid(final int rowCount, final NumberColumn... columns) {
+        this.columns       = FXCollections.observableArrayList(columns);
+        this.rowCount      = new SimpleIntegerProperty(this, "rowCount", Math.max(0, rowCount));
+        this.rowHeight     = new SimpleDoubleProperty(this, "rowHeight", 24);
+        this.editable      = new SimpleBooleanProperty(this, "editable", true);
+        this.focusedRow    = new ReadOnlyIntegerWrapper(this, "focusedRow", 0);
+        this.focusedColumn = new ReadOnlyIntegerWrapper(this, "focusedColumn", 0);
+        this.editingRow    = new ReadOnlyIntegerWrapper(this, "editingRow", -1);
+        this.editingColumn = new ReadOnlyIntegerWrapper(this, "editingColumn", -1);
+        this.revision      = new ReadOnlyLongWrapper(this, "revision", 0);
+
+        getStyleClass().add("formatted-number-grid");
+        setFocusTraversable(true);
+    }
+
+
+    // ******************** Public Methods ************************************
+    public ObservableList<NumberColumn> getColumns() { return columns; }
+
+    /**
+     * Number of rows, every column needs to hold at least this many values.
+     */
+    public int getRowCount() { return rowCount.get(); }
+    public void setRowCount(final int rowCount) { this.rowCount.set(Math.max(0, rowCount)); }
+    public IntegerProperty rowCountProperty() { return rowCount; }
+
+    public double getRowHeight() { return rowHeight.get(); }
+    public void setRowHeight(final double rowHeight) { this.rowHeight.set(rowHeight); }
+    public DoubleProperty rowHeightProperty() { return rowHeight; }
+
+    public boolean isEditable() { return editable.get(); }
+    public void setEditable(final boolean editable) { this.editable.set(editable); }
+    public BooleanProperty editableProperty() { return editable; }
+
+    public int getFocusedRow() { return focusedRow.get(); }
+    public ReadOnlyIntegerProperty focusedRowProperty() { return focusedRow.getReadOnlyProperty(); }
+
+    public int getFocusedColumn() { return focusedColumn.get(); }
+    public ReadOnlyIntegerProperty focusedColumnProperty() { return focusedColumn.getReadOnlyProperty(); }
+
+    /**
+     * Moves the focus to the given cell, the indices are clamped to the grid.
+     */
+    public void focusCell(final int row, final int column) {
+        focusedRow.set(Math.max(0, Math.min(getRowCount() - 1, row)));
+        focusedColumn.set(Math.max(0, Math.min(columns.size() - 1, column)));
+    }
+
+    public int getEditingRow() { return editingRow.get(); }
+    public ReadOnlyIntegerProperty editingRowProperty() { return editingRow.getReadOnlyProperty(); }
+
+    public int getEditingColumn() { return editingColumn.get(); }
+    public ReadOnlyIntegerProperty editingColumnProperty() { return editingColumn.getReadOnlyProperty(); }
+
+    public boolean isEditing() { return editingRow.get() >= 0; }
+
+    /**
+     * Starts editing the given cell if the grid is editable.
+     */
+    public void edit(final int row, final int column) {
+        if (!isEditable() || row < 0 || row >= getRowCount() || column < 0 || column >= columns.size()) { return; }
+        if (isEditing()) { cancelEdit(); }
+        focusCell(row, column);
+        editingColumn.set(column);
+        editingRow.set(row);
+    }
+
+    public void cancelEdit() {
+        editingRow.set(-1);
+        editingColumn.set(-1);
+    }
+
+    /**
+     * Changes whenever a cell has been edited or refresh() has been called.
+     */
+    public long getRevision() { return revision.get(); }
+    public ReadOnlyLongProperty revisionProperty() { return revision.getReadOnlyProperty(); }
+
+    /**
+     * Shows the current content of the column buffers, only cells whose value
+     * changed are formatted again.
+     */
+    public void refresh() { revision.set(revision.get() + 1); }
+
+    public long getUnscaled(final int row, final int column) { return columns.get(column).get(row); }
+    public void setUnscaled(final int row, final int column, final long unscaled) {
+        columns.get(column).set(row, unscaled);
+        refresh();
+    }
+
+    public BigDecimal getValue(final int row, final int column) { return columns.get(column).getValue(row); }
+    public void setValue(final int row, final int column, final BigDecimal value) {
+        columns.get(column).setValue(row, value);
+        refresh();
+    }
+
+    @Override protected Skin<?> createDefaultSkin() { return new FormattedNumberGridSkin(this); }
+
+    @Override public String getUserAgentStylesheet() {
+        if (null == userAgentStyleSheet) { userAgentStyleSheet = FormattedNumberGrid.class.getResource("formatted-textfield.css").toExternalForm(); }
+        return userAgentStyleSheet;
+    }
+}
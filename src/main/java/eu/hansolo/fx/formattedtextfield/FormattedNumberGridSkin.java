@@ -0,0 +1,469 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.css.PseudoClass;
+import javafx.event.EventHandler;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.SkinBase;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+import java.util.List;
+
+
+/**
+ * Default skin of the FormattedNumberGrid. It keeps one Text node per visible
+ * cell slot. Grid row r and column c are always shown by slot
+ * (r % slotRows, c % slotColumns), so after scrolling only the cells that
+ * came into view are formatted again, the others are just moved.
+ * Keys: arrows, page up/down, home/end to move, enter/F2 or typing a number
+ * to edit, enter/tab to commit, escape to cancel and delete to clear a cell.
+ */
+public class FormattedNumberGridSkin extends SkinBase<FormattedNumberGrid> {
+    private static final PseudoClass             NEGATIVE_PSEUDO_CLASS = PseudoClass.getPseudoClass("negative");
+    private static final double                  PADDING               = 4;
+    private final        FormattedNumberGrid     grid;
+    private final        Pane                    header;
+    private final        Pane                    body;
+    private final        Rectangle               headerClip;
+    private final        Rectangle               bodyClip;
+    private final        ScrollBar               vBar;
+    private final        ScrollBar               hBar;
+    private final        Region                  focusMarker;
+    private final        InvalidationListener    layoutListener;
+    private final        InvalidationListener    resetListener;
+    private final        InvalidationListener    editingListener;
+    private final        EventHandler<KeyEvent>  keyPressedHandler;
+    private final        EventHandler<KeyEvent>  keyTypedHandler;
+    private              Text[][]                cells;
+    private              Label[]                 titles;
+    private              int[][]                 shownRows;
+    private              int[][]                 shownColumns;
+    private              long[][]                shownValues;
+    private              double[]                columnX;
+    private              int                     slotRows;
+    private              int                     slotColumns;
+    private              double                  viewportWidth;
+    private              double                  viewportHeight;
+    private              FormattedTextField      editor;
+    private              boolean                 committing;
+
+
+    // ******************** Constructors **************************************
+    public FormattedNumberGridSkin(final FormattedNumberGrid grid) {
+        super(grid);
+        this.grid              = grid;
+        this.header            = new Pane();
+        this.body              = new Pane();
+        this.headerClip        = new Rectangle();
+        this.bodyClip          = new Rectangle();
+        this.vBar              = new ScrollBar();
+        this.hBar              = new ScrollBar();
+        this.focusMarker       = new Region();
+        this.layoutListener    = o -> grid.requestLayout();
+        this.resetListener     = o -> reset();
+        this.editingListener   = this::editingChanged;
+        this.keyPressedHandler = this::keyPressed;
+        this.keyTypedHandler   = this::keyTyped;
+        this.cells             = new Text[0][0];
+        this.titles            = new Label[0];
+        this.columnX           = new double[1];
+
+        header.getStyleClass().add("column-header-background");
+        header.setClip(headerClip);
+        body.getStyleClass().add("body");
+        body.setClip(bodyClip);
+        vBar.setOrientation(Orientation.VERTICAL);
+        focusMarker.getStyleClass().add("focused-cell");
+        focusMarker.setManaged(false);
+        focusMarker.setMouseTransparent(true);
+        body.getChildren().add(focusMarker);
+        getChildren().addAll(header, body, vBar, hBar);
+
+        registerListeners();
+    }
+
+
+    // ******************** Initialization ************************************
+    private void registerListeners() {
+        grid.getColumns().addListener(resetListener);
+        grid.rowCountProperty().addListener(resetListener);
+        grid.rowHeightProperty().addListener(resetListener);
+        grid.revisionProperty().addListener(layoutListener);
+        grid.focusedRowProperty().addListener(layoutListener);
+        grid.focusedColumnProperty().addListener(layoutListener);
+        grid.editingRowProperty().addListener(editingListener);
+        vBar.valueProperty().addListener(layoutListener);
+        hBar.valueProperty().addListener(layoutListener);
+
+        body.addEventHandler(ScrollEvent.SCROLL, this::scroll);
+        body.addEventHandler(MouseEvent.MOUSE_PRESSED, this::mousePressed);
+        grid.addEventHandler(KeyEvent.KEY_PRESSED, keyPressedHandler);
+        grid.addEventHandler(KeyEvent.KEY_TYPED, keyTypedHandler);
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override protected void layoutChildren(final double x, final double y, final double w, final double h) {
+        final List<NumberColumn> columns     = grid.getColumns();
+        final double             rowHeight   = grid.getRowHeight();
+        final double             totalHeight = grid.getRowCount() * rowHeight;
+        if (columnX.length != columns.size() + 1) { columnX = new double[columns.size() + 1]; }
+        for (int c = 0 ; c < columns.size() ; c++) { columnX[c + 1] = columnX[c] + columns.get(c).getWidth(); }
+        final double totalWidth = columnX[columns.size()];
+
+        final double  barWidth  = snapSizeX(vBar.prefWidth(-1));
+        final double  barHeight = snapSizeY(hBar.prefHeight(-1));
+        boolean       needV     = totalHeight > h - rowHeight;
+        final boolean needH     = totalWidth > w - (needV ? barWidth : 0);
+        needV          = totalHeight > h - rowHeight - (needH ? barHeight : 0);
+        viewportWidth  = Math.max(0, w - (needV ? barWidth : 0));
+        viewportHeight = Math.max(0, h - rowHeight - (needH ? barHeight : 0));
+
+        configure(vBar, needV, totalHeight, viewportHeight, rowHeight);
+        configure(hBar, needH, totalWidth, viewportWidth, 20);
+        vBar.resizeRelocate(x + viewportWidth, y + rowHeight, barWidth, viewportHeight);
+        hBar.resizeRelocate(x, y + rowHeight + viewportHeight, viewportWidth, barHeight);
+        header.resizeRelocate(x, y, viewportWidth, rowHeight);
+        body.resizeRelocate(x, y + rowHeight, viewportWidth, viewportHeight);
+        headerClip.setWidth(viewportWidth);
+        headerClip.setHeight(rowHeight);
+        bodyClip.setWidth(viewportWidth);
+        bodyClip.setHeight(viewportHeight);
+
+        updateCells();
+    }
+
+    @Override public void dispose() {
+        grid.getColumns().removeListener(resetListener);
+        grid.rowCountProperty().removeListener(resetListener);
+        grid.rowHeightProperty().removeListener(resetListener);
+        grid.revisionProperty().removeListener(layoutListener);
+        grid.focusedRowProperty().removeListener(layoutListener);
+        grid.focusedColumnProperty().removeListener(layoutListener);
+        grid.editingRowProperty().removeListener(editingListener);
+        grid.removeEventHandler(KeyEvent.KEY_PRESSED, keyPressedHandler);
+        grid.removeEventHandler(KeyEvent.KEY_TYPED, keyTypedHandler);
+        super.dispose();
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private static void configure(final ScrollBar bar, final boolean visible, final double total, final double viewport, final double unit) {
+        bar.setVisible(visible);
+        bar.setMax(Math.max(0, total - viewport));
+        bar.setVisibleAmount(total <= 0 ? 0 : viewport / total * bar.getMax());
+        bar.setUnitIncrement(unit);
+        bar.setBlockIncrement(Math.max(unit, viewport));
+        if (bar.getValue() > bar.getMax()) { bar.setValue(bar.getMax()); }
+    }
+
+    private void updateCells() {
+        final List<NumberColumn> columns   = grid.getColumns();
+        final double             rowHeight = grid.getRowHeight();
+        final int                rowCount  = grid.getRowCount();
+        final double             top       = vBar.getValue();
+        final double             left      = hBar.getValue();
+        if (columns.isEmpty() || rowCount == 0 || rowHeight <= 0) {
+            hideAll();
+            return;
+        }
+        final int firstRow    = Math.min(rowCount - 1, (int) (top / rowHeight));
+        final int lastRow     = Math.min(rowCount - 1, (int) ((top + viewportHeight) / rowHeight));
+        final int firstColumn = columnAt(left);
+        final int lastColumn  = columnAt(left + viewportWidth);
+        ensureSlots(lastRow - firstRow + 1, lastColumn - firstColumn + 1);
+
+        for (int slotC = 0 ; slotC < slotColumns ; slotC++) {
+            // the grid column this slot shows, if it is in view
+            final int   c     = firstColumn + Math.floorMod(slotC - firstColumn, slotColumns);
+            final Label title = titles[slotC];
+            if (c > lastColumn) {
+                title.setVisible(false);
+                for (int slotR = 0 ; slotR < slotRows ; slotR++) { cells[slotR][slotC].setVisible(false); }
+                continue;
+            }
+            final NumberColumn column = columns.get(c);
+            final double       width  = column.getWidth();
+            final double       cellX  = columnX[c] - left;
+            if (!title.getText().equals(column.getTitle())) { title.setText(column.getTitle()); }
+            title.resizeRelocate(cellX, 0, width, rowHeight);
+            title.setVisible(true);
+            for (int slotR = 0 ; slotR < slotRows ; slotR++) {
+                final int  r    = firstRow + Math.floorMod(slotR - firstRow, slotRows);
+                final Text cell = cells[slotR][slotC];
+                if (r > lastRow) {
+                    cell.setVisible(false);
+                    continue;
+                }
+                final long value = r < column.getRowCount() ? column.get(r) : NumberColumn.EMPTY;
+                if (shownRows[slotR][slotC] != r || shownColumns[slotR][slotC] != c || shownValues[slotR][slotC] != value) {
+                    cell.setText(column.formatUnscaled(value));
+                    cell.pseudoClassStateChanged(NEGATIVE_PSEUDO_CLASS, NumberColumn.EMPTY != value && value < 0);
+                    shownRows[slotR][slotC]    = r;
+                    shownColumns[slotR][slotC] = c;
+                    shownValues[slotR][slotC]  = value;
+                }
+                if (cell.getWrappingWidth() != width - 2 * PADDING) { cell.setWrappingWidth(width - 2 * PADDING); }
+                cell.setLayoutX(cellX + PADDING);
+                cell.setLayoutY(r * rowHeight - top + rowHeight * 0.5);
+                cell.setVisible(r != grid.getEditingRow() || c != grid.getEditingColumn());
+            }
+        }
+
+        final int     focusedRow    = grid.getFocusedRow();
+        final int     focusedColumn = grid.getFocusedColumn();
+        final boolean focusVisible  = focusedRow >= firstRow && focusedRow <= lastRow && focusedColumn >= firstColumn && focusedColumn <= lastColumn;
+        focusMarker.setVisible(focusVisible);
+        if (focusVisible) { focusMarker.resizeRelocate(columnX[focusedColumn] - left, focusedRow * rowHeight - top, columns.get(focusedColumn).getWidth(), rowHeight); }
+        if (null != editor && grid.isEditing()) {
+            editor.resizeRelocate(columnX[grid.getEditingColumn()] - left, grid.getEditingRow() * rowHeight - top, columns.get(grid.getEditingColumn()).getWidth(), rowHeight);
+        }
+    }
+
+    private int columnAt(final double x) {
+        final int count = grid.getColumns().size();
+        int       index = 0;
+        while (index < count - 1 && columnX[index + 1] <= x) { index++; }
+        return index;
+    }
+
+    // the slots only grow, so that resizing back and forth doesn't recreate nodes
+    private void ensureSlots(final int rows, final int columns) {
+        if (rows <= slotRows && columns <= slotColumns) { return; }
+        slotRows    = Math.max(rows, slotRows);
+        slotColumns = Math.max(columns, slotColumns);
+        for (Text[] row : cells) { body.getChildren().removeAll(row); }
+        header.getChildren().removeAll(titles);
+        cells        = new Text[slotRows][slotColumns];
+        titles       = new Label[slotColumns];
+        shownRows    = new int[slotRows][slotColumns];
+        shownColumns = new int[slotRows][slotColumns];
+        shownValues  = new long[slotRows][slotColumns];
+        for (int c = 0 ; c < slotColumns ; c++) {
+            titles[c] = new Label();
+            titles[c].getStyleClass().add("column-header");
+            titles[c].setManaged(false);
+            header.getChildren().add(titles[c]);
+        }
+        for (int r = 0 ; r < slotRows ; r++) {
+            for (int c = 0 ; c < slotColumns ; c++) {
+                final Text cell = new Text();
+                cell.getStyleClass().add("number-cell");
+                cell.setTextOrigin(VPos.CENTER);
+                cell.setTextAlignment(TextAlignment.RIGHT);
+                cell.setManaged(false);
+                cells[r][c]        = cell;
+                shownRows[r][c]    = -1;
+                shownColumns[r][c] = -1;
+            }
+            body.getChildren().addAll(0, List.of(cells[r]));
+        }
+    }
+
+    // columns or rows changed, every slot has to be formatted again
+    private void reset() {
+        for (int r = 0 ; r < slotRows ; r++) {
+            for (int c = 0 ; c < slotColumns ; c++) { shownColumns[r][c] = -1; }
+        }
+        if (grid.isEditing()) { grid.cancelEdit(); }
+        grid.focusCell(grid.getFocusedRow(), grid.getFocusedColumn());
+        grid.requestLayout();
+    }
+
+    private void hideAll() {
+        for (Text[] row : cells) { for (Text cell : row) { cell.setVisible(false); } }
+        for (Label title : titles) { title.setVisible(false); }
+        focusMarker.setVisible(false);
+    }
+
+    private void scrollTo(final int row, final int column) {
+        final double rowHeight = grid.getRowHeight();
+        final double rowTop    = row * rowHeight;
+        if (rowTop < vBar.getValue()) {
+            vBar.setValue(rowTop);
+        } else if (rowTop + rowHeight > vBar.getValue() + viewportHeight) {
+            vBar.setValue(Math.min(vBar.getMax(), rowTop + rowHeight - viewportHeight));
+        }
+        if (column + 1 >= columnX.length) { return; }
+        if (columnX[column] < hBar.getValue()) {
+            hBar.setValue(columnX[column]);
+        } else if (columnX[column + 1] > hBar.getValue() + viewportWidth) {
+            hBar.setValue(Math.min(hBar.getMax(), columnX[column + 1] - viewportWidth));
+        }
+    }
+
+    private void moveFocus(final int row, final int column) {
+        grid.focusCell(row, column);
+        scrollTo(grid.getFocusedRow(), grid.getFocusedColumn());
+    }
+
+
+    // ******************** Event Handling ************************************
+    private void scroll(final ScrollEvent e) {
+        vBar.setValue(Math.max(0, Math.min(vBar.getMax(), vBar.getValue() - e.getDeltaY())));
+        hBar.setValue(Math.max(0, Math.min(hBar.getMax(), hBar.getValue() - e.getDeltaX())));
+        e.consume();
+    }
+
+    private void mousePressed(final MouseEvent e) {
+        if (grid.getColumns().isEmpty() || grid.getRowCount() == 0) { return; }
+        final int row    = (int) ((e.getY() + vBar.getValue()) / grid.getRowHeight());
+        final int column = columnAt(e.getX() + hBar.getValue());
+        if (row >= grid.getRowCount()) { return; }
+        if (grid.isEditing()) { commitEdit(); }
+        grid.focusCell(row, column);
+        grid.requestFocus();
+        if (e.getClickCount() == 2) { grid.edit(row, column); }
+        e.consume();
+    }
+
+    private void keyPressed(final KeyEvent e) {
+        if (grid.isEditing()) { return; }
+        final int row      = grid.getFocusedRow();
+        final int column   = grid.getFocusedColumn();
+        final int pageRows = Math.max(1, (int) (viewportHeight / grid.getRowHeight()) - 1);
+        switch (e.getCode()) {
+            case UP       : moveFocus(row - 1, column); break;
+            case DOWN     : moveFocus(row + 1, column); break;
+            case LEFT     : moveFocus(row, column - 1); break;
+            case RIGHT    : moveFocus(row, column + 1); break;
+            case PAGE_UP  : moveFocus(row - pageRows, column); break;
+            case PAGE_DOWN: moveFocus(row + pageRows, column); break;
+            case HOME     : moveFocus(e.isShortcutDown() ? 0 : row, 0); break;
+            case END      : moveFocus(e.isShortcutDown() ? grid.getRowCount() - 1 : row, grid.getColumns().size() - 1); break;
+            case ENTER    :
+            case F2       : grid.edit(row, column); break;
+            case DELETE   :
+                if (!grid.isEditable()) { return; }
+                grid.setUnscaled(row, column, NumberColumn.EMPTY);
+                break;
+            default       : return;
+        }
+        e.consume();
+    }
+
+    // typing a number into a focused cell starts editing with that character
+    private void keyTyped(final KeyEvent e) {
+        if (grid.isEditing() || e.getCharacter().length() != 1 || grid.getColumns().isEmpty()) { return; }
+        final char c         = e.getCharacter().charAt(0);
+        final char separator = grid.getColumns().get(grid.getFocusedColumn()).getTemplate().getDecimalSeparator();
+        if ((c < '0' || c > '9') && c != '-' && c != separator) { return; }
+        grid.edit(grid.getFocusedRow(), grid.getFocusedColumn());
+        if (grid.isEditing()) {
+            editor.replaceText(0, editor.getLength(), e.getCharacter());
+            editor.end();
+        }
+        e.consume();
+    }
+
+    private void editingChanged(final Observable o) {
+        if (grid.isEditing()) {
+            startEdit();
+        } else if (null != editor && editor.isVisible()) {
+            editor.setVisible(false);
+            grid.requestFocus();
+            grid.requestLayout();
+        }
+    }
+
+
+    // ******************** Editing *******************************************
+    private FormattedTextField getEditor(final FieldTemplate template) {
+        if (null == editor) {
+            editor = new FormattedTextField(template);
+            editor.setFixedPoint(true);
+            editor.setManaged(false);
+            editor.setVisible(false);
+            editor.addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+                switch (e.getCode()) {
+                    case ENTER :
+                        commitEdit();
+                        moveFocus(grid.getFocusedRow() + 1, grid.getFocusedColumn());
+                        e.consume();
+                        break;
+                    case TAB   :
+                        commitEdit();
+                        moveFocus(grid.getFocusedRow(), grid.getFocusedColumn() + (e.isShiftDown() ? -1 : 1));
+                        e.consume();
+                        break;
+                    case ESCAPE:
+                        grid.cancelEdit();
+                        e.consume();
+                        break;
+                    default    : break;
+                }
+            });
+            editor.focusedProperty().addListener((o, ov, nv) -> { if (!nv && grid.isEditing() && !committing) { commitEdit(); } });
+            body.getChildren().add(editor);
+        } else {
+            editor.setTemplate(template);
+        }
+        return editor;
+    }
+
+    private void startEdit() {
+        final int                row    = grid.getEditingRow();
+        final NumberColumn       column = grid.getColumns().get(grid.getEditingColumn());
+        final long               value  = column.get(row);
+        final FormattedTextField editor = getEditor(column.getTemplate());
+        if (NumberColumn.EMPTY == value) {
+            editor.setValue(null);
+            editor.clear();
+        } else {
+            editor.setUnscaledValue(value);
+        }
+        scrollTo(row, grid.getEditingColumn());
+        editor.setVisible(true);
+        grid.requestLayout();
+        editor.requestFocus();
+        editor.selectAll();
+    }
+
+    private void commitEdit() {
+        if (!grid.isEditing() || committing) { return; }
+        committing = true;
+        try {
+            final long value;
+            if (null == editor.getText() || editor.getText().isEmpty()) {
+                value = NumberColumn.EMPTY;
+            } else {
+                editor.parseAndFormat();
+                value = null == editor.getValue() ? NumberColumn.EMPTY : editor.getUnscaledValue();
+            }
+            final int row    = grid.getEditingRow();
+            final int column = grid.getEditingColumn();
+            grid.cancelEdit();
+            grid.setUnscaled(row, column, value);
+        } finally {
+            committing = false;
+        }
+    }
+}
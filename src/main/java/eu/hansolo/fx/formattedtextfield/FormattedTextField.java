@@ -20,44 +20,69 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
-import java.text.NumberFormat;
 import java.text.ParseException;
+import java.util.Collections;
 import java.util.Locale;
-import java.util.function.UnaryOperator;
-import java.util.regex.Pattern;
+import java.util.concurrent.Executor;
 
-import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.DoublePropertyBase;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.LongPropertyBase;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ObjectPropertyBase;
 import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.collections.ObservableList;
 import javafx.css.PseudoClass;
+import javafx.scene.input.Clipboard;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextFormatter;
-import javafx.scene.control.TextFormatter.Change;
+import javafx.util.Duration;
 
 
 public class FormattedTextField extends TextField {
-    private static final int                        MAX_PRE_DECIMALS      = 24;
+    private static final int                        MAX_PRE_DECIMALS      = FieldTemplate.MAX_PRE_DECIMALS;
     private static final PseudoClass                NEGATIVE_PSEUDO_CLASS = PseudoClass.getPseudoClass("negative");
-    private final        Format                     format;
-    private              String                     userAgentStyleSheet;
+    private              FieldTemplate              template;
+    private static       String                     userAgentStyleSheet;
+    private              boolean                    _negative;
     private              BooleanProperty            negative;
-    private              BooleanBinding             negativeBinding;
-    private              boolean                    _negativeNumbersAllowed;
     private              BooleanProperty            negativeNumbersAllowed;
-    private              int                        predecimals;
-    private              int                        decimals;
-    private              NumberFormat               numberFormat;
-    private              DecimalFormat              decimalFormat;
-    private              Locale                     locale;
-    private              DecimalFormatSymbols       decimalFormatSymbols;
     private              ObjectProperty<BigDecimal> value;
-    private              TextFormatter              textFormatter;
-    private              Pattern                    pattern;
-    private              UnaryOperator<Change>      filter;
+    private              TextFormatter<?>           textFormatter;
     private              ObjectProperty<UnitPos>    unitPosition;
+    private              boolean                    fixedPoint;
+    private              boolean                    hasUnscaledValue;
+    private              long                       _unscaledValue;
+    private              LongProperty               unscaledValue;
+    private              DoubleProperty             doubleValue;
+    private              StringBuilder              textBuilder;
+    private              boolean                    valueExposed;
+    private              boolean                    syncing;
+    private              boolean                    unitShownSeparately;
+    private              String                     renderedText;
+    private              String                     editText;
+    private              boolean                    rendering;
+    private              boolean                    renderPending;
+    private              int                        updating;
+    private              FieldValidation            validation;
+    private              LiveCommit                 liveCommit;
+    private              boolean                    keepingText;
+    private              ValueStepper               stepper;
+    private              Unit                       unit;
+    private              Unit                       displayUnit;
+    private              Unit                       shownUnit;
+    private              UnitConversion             toShown;
+    private              UnitConversion             fromShown;
+    private              boolean                    autoScaled;
+    private              AutoScale                  autoScale;
+    private              FormattedFieldGroup        group;
+    private              ValuePublisher             publisher;
+    private              boolean                    publishingValues;
 
 
     // ******************** Constructors **************************************
@@ -195,99 +220,38 @@ public class FormattedTextField extends TextField {
         this(format, value, predecimals, decimals, Locale.getDefault(), negativeNumbersAllowed);
     }
     public FormattedTextField(final Format format, final BigDecimal value, final int predecimals, final int decimals, final Locale locale, final boolean negativeNumbersAllowed) {
-        super(null == value ? null : ( value.compareTo(BigDecimal.ZERO) < 0 ? BigDecimal.ZERO.toString() :
-                                                                            DecimalFormatSymbols.getInstance(locale).getDecimalSeparator() != '.' ? value.toString().replace(".", Character.toString(DecimalFormatSymbols.getInstance(locale).getDecimalSeparator())) :
-                                                                            value.toString()));
-        this.locale                  = locale;
-        this.decimalFormatSymbols    = new DecimalFormatSymbols(this.locale);
-        this.negative                = new BooleanPropertyBase() {
-            @Override protected void invalidated() { pseudoClassStateChanged(NEGATIVE_PSEUDO_CLASS, get()); }
-            @Override public Object getBean() { return FormattedTextField.this; }
-            @Override public String getName() { return "negative"; }
-        };
-        this._negativeNumbersAllowed = negativeNumbersAllowed;
-        this.predecimals             = clamp(1, MAX_PRE_DECIMALS, predecimals);
-        this.decimals                = clamp(0, Integer.MAX_VALUE, decimals);
-        this.decimalFormat           = new DecimalFormat();
-        this.decimalFormat.setDecimalFormatSymbols(decimalFormatSymbols);
-        this.unitPosition            = new ObjectPropertyBase<>(UnitPos.AFTER) {
-            @Override protected void invalidated() { parseAndFormat(); }
-            @Override public Object getBean() { return FormattedTextField.this; }
-            @Override public String getName() { return "unitPosition"; }
-        };
-
-        StringBuilder patternBuilder;
-        switch(format.getType()) {
-            case KM    :
-            case EURO  :
-            case DOLLAR:
-                patternBuilder = new StringBuilder("#,###,##0");
-                break;
-            default:
-                patternBuilder = new StringBuilder("0");
-                break;
-        }
-
-        if (this.decimals > 0) {
-            patternBuilder.append(".");
-            for (int i = 0 ; i < this.decimals ; i++) { patternBuilder.append("0"); }
-        }
-
-        this.format = format;
-        this.format.setPattern(patternBuilder.toString());
-        this.numberFormat  = format.getDecimalFormatForLocale(this.locale);
-        this.value         = new ObjectPropertyBase<>() {
+        this(FieldTemplate.of(format, predecimals, decimals, locale, negativeNumbersAllowed), value);
+    }
+    public FormattedTextField(final FieldTemplate template) {
+        this(template, null);
+    }
+    public FormattedTextField(final FieldTemplate template, final BigDecimal value) {
+        this.template = template;
+        this.value    = new ObjectPropertyBase<>() {
+            @Override public void set(final BigDecimal newValue) {
+                final BigDecimal v = null != newValue && newValue.signum() < 0 && !getNegativeNumbersAllowed() ? BigDecimal.ZERO : newValue;
+                // numerically equal values (e.g. 2.0 and 2.00) are no change
+                if (!isBound() && isSameValue(get(), v)) { return; }
+                super.set(v);
+            }
             @Override protected void invalidated() {
-                if (null == get()) { return; }
-                if (getNegativeNumbersAllowed()) {
-                    setText(decimalFormat.format(get()));
-                } else {
-                    if (get().compareTo(BigDecimal.ZERO) < 0) {
-                        set(BigDecimal.ZERO);
-                        setText(decimalFormat.format(BigDecimal.ZERO));
-                    } else {
-                        setText(decimalFormat.format(get()));
-                    }
+                final BigDecimal v = get();
+                if (syncing) { return; }
+                if (fixedPoint) {
+                    setUnscaled(null != v, null == v ? 0 : FixedPointFormat.toUnscaled(v, getDecimals()));
+                    return;
                 }
+                setNegative(null != v && v.signum() < 0);
+                updatePrimitiveViews();
+                requestRender();
             }
             @Override public Object getBean() { return FormattedTextField.this; }
             @Override public String getName() { return "FormattedTextField"; }
         };
 
-        if (null == value) {
-            switch(getUnitPosition()) {
-                case IN_FRONT:
-                    this.decimalFormat.applyPattern((this.format.getUnit().isEmpty() ? "" : ("'" + this.format.getUnit() + "' ")) + this.format.getPattern());
-                    break;
-                case AFTER:
-                default:
-                    this.decimalFormat.applyPattern(this.format.getPattern() + (this.format.getUnit().isEmpty() ? "" : ("' " + this.format.getUnit() + "'")));
-                    break;
-            }
-        } else {
-            switch(getUnitPosition()) {
-                case IN_FRONT:
-                    if (format.hasMultipleUnits() && (value.compareTo(BigDecimal.ONE) > 0 || value.compareTo(BigDecimal.ONE.negate()) < 0)) {
-                        this.decimalFormat.applyPattern((this.format.getUnits().isEmpty() ? "" : ("'" + this.format.getUnits() + "' ")) + this.format.getPattern());
-                    } else {
-                        this.decimalFormat.applyPattern((this.format.getUnit().isEmpty() ? "" : ("'" + this.format.getUnit() + "' ")) + this.format.getPattern());
-                    }
-                    break;
-                case AFTER:
-                default:
-                    if (format.hasMultipleUnits() && (value.compareTo(BigDecimal.ONE) > 0 || value.compareTo(BigDecimal.ONE.negate()) < 0)) {
-                        this.decimalFormat.applyPattern(this.format.getPattern() + (this.format.getUnits().isEmpty() ? "" : ("' " + this.format.getUnits() + "'")));
-                    } else {
-                        this.decimalFormat.applyPattern(this.format.getPattern() + (this.format.getUnit().isEmpty() ? "" : ("' " + this.format.getUnit() + "'")));
-                    }
-                    break;
-            }
-        }
-
-        buildPattern();
-        setPromptText(format.getPrompt());
+        Metrics.count(template.getFormat().getType(), FieldActivity.PATTERN_APPLIED);
+        setPromptText(template.getPromptText());
         registerListeners();
-        initBindings();
 
         if (null != value) { setValue(value); }
 
@@ -299,21 +263,44 @@ public class FormattedTextField extends TextField {
     private void registerListeners() {
         focusedProperty().addListener((o, ov, nv) -> {
             if (nv) {
-                if (null != value.get()) {
-                    setText(value.get().toString().replace(".", Character.toString(decimalFormatSymbols.getDecimalSeparator())));
+                if (null != liveCommit) { liveCommit.reset(); }
+                renderedText = getText();
+                // with the unit shown separately the rendered number can be edited as is, unless it contains grouping separators or is truncated
+                if (!unitShownSeparately || template.isDisplayTruncated() || !template.getValidator().isValid(renderedText)) {
+                    final String text = getShownPlainText();
+                    if (null != text) { setText(text); }
                 }
+                editText = getText();
+                if (null == textFormatter) { textFormatter = new TextFormatter<>(template.getFilter()); }
                 setTextFormatter(textFormatter);
             } else {
                 setTextFormatter(null);
                 if (null == getText() || getText().isEmpty()) {
-                    value.setValue(null);
+                    setValue(null);
+                } else if (getText().equals(editText)) {
+                    // nothing has been edited since the focus gain or the last step, no need to parse the text again
+                    if (null != renderedText) {
+                        setRenderedText(renderedText);
+                    } else {
+                        requestRender();
+                    }
+                } else if (null != liveCommit && liveCommit.flush(getText())) {
+                    // the value already follows the text, it only has to be rendered
+                    requestRender();
                 } else {
                     parseAndFormat();
                 }
+                renderedText = null;
+                editText     = null;
             }
         });
         textProperty().addListener((o, ov, nv) -> {
-            if (!isFocused()) {
+            if (isFocused()) {
+                if (null != liveCommit && !rendering) { liveCommit.textChanged(nv); }
+                return;
+            }
+            // only text that has been set from outside needs to be parsed
+            if (!unitShownSeparately && !rendering && 0 == updating) {
                 if (null != nv && !getFormat().getUnit().isEmpty()) {
                     if (!nv.contains(getFormat().getUnit())) {
                         parseAndFormat();
@@ -323,178 +310,652 @@ public class FormattedTextField extends TextField {
         });
     }
 
-    private void initBindings() {
-        negativeBinding = new BooleanBinding() {
-            {
-                super.bind(value);
-            }
-            @Override protected boolean computeValue() {
-                return null == value.get() ? false : value.get().compareTo(BigDecimal.ZERO) < 0;
-            }
-        };
-        negative.bind(negativeBinding);
+    private void applyTemplate(final FieldTemplate template) {
+        final FieldTemplate oldTemplate = this.template;
+        if (template == oldTemplate) { return; }
+        this.template = template;
+        Metrics.count(template.getFormat().getType(), FieldActivity.PATTERN_APPLIED);
+        if (null != textFormatter && template.getFilter() != oldTemplate.getFilter()) {
+            final boolean installed = getTextFormatter() == textFormatter;
+            textFormatter = new TextFormatter<>(template.getFilter());
+            if (installed) { setTextFormatter(textFormatter); }
+        }
+    }
+
+    /**
+     * Applies a new template and renders the text once. If reparse is true the
+     * current text is parsed before, with the template it has been rendered with.
+     */
+    private void reconfigure(final FieldTemplate newTemplate, final boolean reparse) {
+        if (newTemplate == template) { return; }
+        final int oldDecimals = getDecimals();
+        beginUpdate();
+        try {
+            final String text = getText();
+            // a truncated or converted display text would lose the digits that are not shown
+            if (reparse && !fixedPoint && null != text && !text.isEmpty() && (isFocused() || (!template.isDisplayTruncated() && null == toShown))) { parseText(text); }
+            applyTemplate(newTemplate);
+            if (fixedPoint && hasUnscaledValue && oldDecimals != getDecimals()) { setUnscaled(true, FixedPointFormat.rescale(_unscaledValue, oldDecimals, getDecimals())); }
+            requestRender();
+        } finally {
+            endUpdate();
+        }
     }
 
-    private int clamp(final int min, final int max, final int value) {
-        if (value < min) { return min; }
-        if (value > max) { return max; }
-        return value;
+    private void showEditedText() {
+        if (null != liveCommit) { liveCommit.reset(); }
+        final String text = getShownPlainText();
+        setRenderedText(null == text ? "" : text);
+        positionCaret(getLength());
+        // the text belongs to the value now, the focus loss only has to render it
+        editText     = getText();
+        renderedText = null;
     }
 
-    private void buildPattern() {
-        int digits = this.predecimals + this.decimals + 1;
-        StringBuilder patternBuilder;
-        if (getNegativeNumbersAllowed()) {
-            if (this.decimals > 0) {
-                patternBuilder = new StringBuilder().append("(?=.*\\d?)(?!(?:\\D*\\d){").append(digits).append(",})[-]?\\d{0,").append(this.predecimals).append("}(?:\\").append(decimalFormatSymbols.getDecimalSeparator()).append("\\d{0,").append(this.decimals).append("})?");
+    private void publishValue(final BigDecimal oldValue, final BigDecimal newValue) {
+        final ValuePublisher groupPublisher = null == group ? null : group.peekValuePublisher();
+        final boolean        own            = null != publisher && publisher.hasSubscribers();
+        final boolean        grouped        = null != groupPublisher && groupPublisher.hasSubscribers();
+        if (!own && !grouped) { return; }
+        final ValueEvent event = new ValueEvent(this, getId(), oldValue, newValue, System.currentTimeMillis());
+        if (own)     { publisher.publish(event); }
+        if (grouped) { groupPublisher.publish(event); }
+    }
+
+    /**
+     * Returns the emptied builder the texts are assembled in.
+     */
+    private StringBuilder textBuilder() {
+        if (null == textBuilder) { textBuilder = new StringBuilder(32); }
+        textBuilder.setLength(0);
+        return textBuilder;
+    }
+
+    private ValueStepper stepper() {
+        if (null == stepper) { stepper = new ValueStepper(this); }
+        return stepper;
+    }
+
+    private boolean parseText(final String text) {
+        try {
+            if (fixedPoint) {
+                final long parsed = template.getParser().parseUnscaled(text, getDecimals());
+                setUnscaled(true, null == fromShown ? parsed : fromShown.convert(parsed));
             } else {
-                patternBuilder = new StringBuilder().append("(?=.*\\d?)(?!(?:\\D*\\d){").append(digits).append(",})[-]?\\d{0,").append(this.predecimals).append("}");
+                final BigDecimal parsed = template.getParser().parse(text);
+                value.set(null == fromShown || null == parsed ? parsed : fromShown.convert(parsed, Math.max(getDecimals(), parsed.scale())));
             }
+            return true;
+        } catch (ParseException | ArithmeticException e) {
+            return false;
+        }
+    }
+
+    private void setUnscaled(final boolean hasValue, final long unscaled) {
+        final long clamped = hasValue && unscaled < 0 && !getNegativeNumbersAllowed() ? 0 : unscaled;
+        if (hasValue == hasUnscaledValue && clamped == _unscaledValue) { return; }
+        this.hasUnscaledValue = hasValue;
+        this._unscaledValue   = hasValue ? clamped : 0;
+        setNegative(clamped < 0);
+        syncing = true;
+        if (null != unscaledValue) { unscaledValue.set(_unscaledValue); }
+        if (null != doubleValue)   { doubleValue.set(FixedPointFormat.toDouble(_unscaledValue, getDecimals())); }
+        if (valueExposed)          { value.set(hasValue ? FixedPointFormat.toBigDecimal(_unscaledValue, getDecimals()) : null); }
+        syncing = false;
+        requestRender();
+    }
+
+    private void beginUpdate() { updating++; }
+
+    private void endUpdate() {
+        if (--updating == 0 && renderPending) { render(); }
+    }
+
+    /**
+     * Renders the text right away or, during an update, once the update is done.
+     */
+    private void requestRender() {
+        if (updating > 0) {
+            renderPending = true;
         } else {
-            if (this.decimals > 0) {
-                patternBuilder = new StringBuilder().append("(?=.*\\d?)(?!(?:\\D*\\d){").append(digits).append(",})\\d{0,").append(this.predecimals).append("}(?:\\").append(decimalFormatSymbols.getDecimalSeparator()).append("\\d{0,").append(this.decimals).append("})?");
+            render();
+        }
+    }
+
+    private void render() {
+        renderPending = false;
+        // while typing in live commit mode or stepping the focused field the text is kept
+        if (keepingText) { return; }
+        final long   start = Metrics.start();
+        final String text;
+        if (fixedPoint) {
+            if (!hasUnscaledValue) { return; }
+            if (null != unit && !isFocused()) { showUnit(autoScaled ? autoScale().select(_unscaledValue, getDisplayUnit()) : getDisplayUnit()); }
+            final long shown;
+            try {
+                shown = null == toShown ? _unscaledValue : toShown.convert(_unscaledValue);
+            } catch (ArithmeticException e) {
+                // the converted value doesn't fit into a long
+                setRenderedText(format(FixedPointFormat.toBigDecimal(_unscaledValue, getDecimals())));
+                return;
+            }
+            final FixedPointFormat unitsFixedPointFormat = template.getUnitsFixedPointFormat();
+            final FixedPointFormat fixedPointFormat;
+            if (unitShownSeparately) {
+                fixedPointFormat = template.getNumberFixedPointFormat();
             } else {
-                patternBuilder = new StringBuilder().append("(?=.*\\d?)(?!(?:\\D*\\d){").append(digits).append(",})\\d{0,").append(this.predecimals).append("}");
+                fixedPointFormat = unitsFixedPointFormat.isPlural(shown) ? unitsFixedPointFormat : template.getUnitFixedPointFormat();
             }
+            text = fixedPointFormat.format(shown, textBuilder()).toString();
+        } else {
+            final BigDecimal v = value.get();
+            if (null == v) { return; }
+            if (null != unit && !isFocused()) { showUnit(autoScaled ? autoScale().select(v, getDisplayUnit()) : getDisplayUnit()); }
+            text = format(v);
         }
-        this.pattern       = Pattern.compile(patternBuilder.toString());
-        this.filter        = c -> {
-            String text = c.getControlNewText();
-            if (pattern.matcher(text).matches()) {
-                return c;
-            } else {
-                return null;
+        setRenderedText(text);
+        Metrics.record(getFormat().getType(), FieldActivity.RENDER, start);
+    }
+
+    private String format(final BigDecimal value) {
+        final BigDecimal v = null == toShown ? value : toShown.convert(value, getDecimals());
+        return displayFormatFor(v).format(template.toDisplayValue(v));
+    }
+
+    /**
+     * Returns the text that is edited, the value in the shown unit without
+     * grouping and unit.
+     */
+    private String getShownPlainText() {
+        if (fixedPoint) {
+            if (!hasUnscaledValue) { return null; }
+            try {
+                return template.getUnitFixedPointFormat().formatPlain(null == toShown ? _unscaledValue : toShown.convert(_unscaledValue), textBuilder()).toString();
+            } catch (ArithmeticException e) {
+                // the converted value doesn't fit into a long, continue with BigDecimal
             }
-        };
-        this.textFormatter = new TextFormatter(filter);
+        }
+        final BigDecimal v = getValue();
+        if (null == v) { return null; }
+        return FixedPointFormat.formatPlain(null == toShown ? v : toShown.convert(v, getDecimals()), template.getDecimalSeparator(), textBuilder()).toString();
     }
 
+    /**
+     * Shows the value in the given unit from now on, null shows the unit of
+     * the Format.
+     */
+    private void showUnit(final Unit unit) {
+        if (unit == shownUnit) { return; }
+        shownUnit = unit;
+        toShown   = null == unit || unit == this.unit ? null : this.unit.conversionTo(unit);
+        fromShown = null == toShown ? null : toShown.inverse();
+        applyTemplate(template.withUnit(unit));
+    }
 
-    // ******************** Public Methods ************************************
-    public final void parseAndFormat() {
+    private void updateShownUnit() {
+        beginUpdate();
         try {
-            String text = getText();
-            if (text == null || text.isEmpty()) {
-                return;
-            }
-            Number     parsedNumber = numberFormat.parse(text);
-            BigDecimal newValue     = new BigDecimal(parsedNumber.toString());
+            // while the field is being edited the unit of the text stays
+            if (!isFocused()) { showUnit(getDisplayUnit()); }
+            requestRender();
+        } finally {
+            endUpdate();
+        }
+    }
 
-            this.decimalFormat.setDecimalFormatSymbols(decimalFormatSymbols);
+    private AutoScale autoScale() {
+        if (null == autoScale || !autoScale.matches(unit, getDecimals())) { autoScale = new AutoScale(unit, getDecimals()); }
+        return autoScale;
+    }
 
-            switch(getUnitPosition()) {
-                case IN_FRONT:
-                    if (format.hasMultipleUnits() && (newValue.compareTo(BigDecimal.ONE) > 0 || newValue.compareTo(BigDecimal.ONE.negate()) < 0)) {
-                        this.decimalFormat.applyPattern((this.format.getUnits().isEmpty() ? "" : ("'" + this.format.getUnits() + "' ")) + this.format.getPattern());
-                    } else {
-                        this.decimalFormat.applyPattern((this.format.getUnit().isEmpty() ? "" : ("'" + this.format.getUnit() + "' ")) + this.format.getPattern());
-                    }
-                    break;
-                case AFTER:
-                default:
-                    if (format.hasMultipleUnits() && (newValue.compareTo(BigDecimal.ONE) > 0 || newValue.compareTo(BigDecimal.ONE.negate()) < 0)) {
-                        this.decimalFormat.applyPattern(this.format.getPattern() + (this.format.getUnits().isEmpty() ? "" : ("' " + this.format.getUnits() + "'")));
-                    } else {
-                        this.decimalFormat.applyPattern(this.format.getPattern() + (this.format.getUnit().isEmpty() ? "" : ("' " + this.format.getUnit() + "'")));
-                    }
-                    break;
+    private void setRenderedText(final String text) {
+        if (text.equals(getText())) { return; }
+        rendering = true;
+        setText(text);
+        rendering = false;
+    }
+
+    private FieldValidation validation() {
+        if (null == validation) { validation = new FieldValidation(this); }
+        return validation;
+    }
+
+    private DecimalFormat displayFormatFor(final BigDecimal value) {
+        if (unitShownSeparately) { return template.getNumberFormat(); }
+        return null == value ? template.getUnitFormat() : template.formatFor(value);
+    }
+
+    private void updatePrimitiveViews() {
+        if (null == unscaledValue && null == doubleValue) { return; }
+        final BigDecimal v = value.get();
+        syncing = true;
+        if (null != unscaledValue) { unscaledValue.set(null == v ? 0 : v.movePointRight(getDecimals()).longValue()); }
+        if (null != doubleValue)   { doubleValue.set(null == v ? 0 : v.doubleValue()); }
+        syncing = false;
+    }
+
+    private static boolean isSameValue(final BigDecimal a, final BigDecimal b) {
+        return a == b || (null != a && null != b && a.compareTo(b) == 0);
+    }
+
+
+    // ******************** Package Methods ***********************************
+    /**
+     * Applies a value together with its text that has been formatted in the
+     * background with the given template. Falls back to setValue() if the
+     * configuration changed in the meantime, the field is being edited or it
+     * is in fixed point mode.
+     */
+    void applyFormattedValue(final BigDecimal value, final String text, final FieldTemplate formattedWith) {
+        if (null == value || fixedPoint || unitShownSeparately || isFocused() || formattedWith != template || null != toShown || autoScaled) {
+            setValue(value);
+            return;
+        }
+        final BigDecimal v = !getNegativeNumbersAllowed() && value.signum() < 0 ? BigDecimal.ZERO : value;
+        if (isSameValue(this.value.get(), v)) { return; }
+        syncing = true;
+        this.value.set(v);
+        syncing = false;
+        setNegative(v.signum() < 0);
+        updatePrimitiveViews();
+        setRenderedText(text);
+    }
+
+    /**
+     * Called by LiveCommit with the value of the text that is being typed.
+     */
+    void commitLiveValue(final BigDecimal value) {
+        keepingText = true;
+        try {
+            setValue(null == fromShown || null == value ? value : fromShown.convert(value, Math.max(getDecimals(), value.scale())));
+        } finally {
+            keepingText = false;
+        }
+    }
+    void commitLiveUnscaled(final long unscaled) {
+        keepingText = true;
+        try {
+            setUnscaled(true, null == fromShown ? unscaled : fromShown.convert(unscaled));
+        } catch (ArithmeticException e) {
+            // the value doesn't fit into a long in the unit of the value, it is parsed on focus loss
+        } finally {
+            keepingText = false;
+        }
+    }
+
+    boolean hasValue() { return fixedPoint ? hasUnscaledValue : null != value.get(); }
+
+    /**
+     * Called by ValueStepper before it steps the value of a focused field,
+     * commits the text that has been typed so far.
+     */
+    void prepareStep() {
+        final String text = getText();
+        if (!isFocused() || null == text || text.equals(editText)) { return; }
+        if (null != liveCommit && liveCommit.flush(text)) { return; }
+        keepingText = true;
+        try {
+            if (text.isEmpty()) {
+                setValue(null);
+            } else {
+                parseText(text);
             }
+        } finally {
+            keepingText = false;
+        }
+    }
+
+    /**
+     * Called by ValueStepper and BulkPaste with a new value. A focused field
+     * shows the new value as plain text like after the focus gain.
+     */
+    void commitEditValue(final BigDecimal value) {
+        if (!isFocused()) {
+            setValue(value);
+            // render() keeps the last text for null
+            if (null == value) { setRenderedText(""); }
+            return;
+        }
+        keepingText = true;
+        try {
+            setValue(value);
+        } finally {
+            keepingText = false;
+        }
+        showEditedText();
+    }
+    void commitEditUnscaled(final long unscaled) {
+        if (!isFocused()) {
+            setUnscaled(true, unscaled);
+            return;
+        }
+        keepingText = true;
+        try {
+            setUnscaled(true, unscaled);
+        } finally {
+            keepingText = false;
+        }
+        showEditedText();
+    }
+
+    UnitConversion getFromShownConversion() { return fromShown; }
+
+    /**
+     * Starts to hand the committed values to the publisher of this field and
+     * of its group.
+     */
+    void publishValues() {
+        if (publishingValues) { return; }
+        publishingValues = true;
+        valueProperty().addListener((o, ov, nv) -> publishValue(ov, nv));
+    }
+
+    FormattedFieldGroup getGroup() { return group; }
+    void setGroup(final FormattedFieldGroup group) { this.group = group; }
+
+    /**
+     * Called by the FormattedTextFieldSkin, if true the text only contains
+     * the number and the unit is shown by the skin.
+     */
+    void setUnitShownSeparately(final boolean unitShownSeparately) {
+        if (this.unitShownSeparately == unitShownSeparately) { return; }
+        this.unitShownSeparately = unitShownSeparately;
+        if (!isFocused()) { requestRender(); }
+    }
+
 
-            setValue(newValue);
-            selectAll();
-        } catch (ParseException e) {
-            if (null == value.get()) {
-                setText("");
+    // ******************** Public Methods ************************************
+    /**
+     * Parses the current text into the value and renders it, both at most once.
+     * If the text cannot be parsed the current value is rendered again.
+     */
+    public final void parseAndFormat() {
+        final String text = getText();
+        if (null == text || text.isEmpty()) {
+            return;
+        }
+        final long start = Metrics.start();
+        final boolean parsed;
+        beginUpdate();
+        try {
+            parsed = parseText(text);
+            if (hasValue()) {
+                requestRender();
             } else {
-                setText(decimalFormat.format(value.get()));
+                setRenderedText("");
             }
+        } finally {
+            endUpdate();
         }
+        if (parsed) { selectAll(); }
+        Metrics.record(getFormat().getType(), parsed ? FieldActivity.PARSE : FieldActivity.PARSE_FAILED, start);
     }
 
-    public Format getFormat() { return format; }
+    public FieldTemplate getTemplate() { return template; }
+    /**
+     * Applies all settings of the given template at once with a single
+     * reformat of the text.
+     */
+    public void setTemplate(final FieldTemplate template) {
+        if (null == template) { throw new IllegalArgumentException("template cannot be null"); }
+        if (fixedPoint && !FixedPointFormat.fits(template.getPreDecimals(), template.getDecimals())) { throw new IllegalArgumentException("Fixed point mode needs predecimals + decimals <= " + FixedPointFormat.MAX_DIGITS); }
+        reconfigure(template.withUnit(shownUnit), true);
+        // the properties follow the template, their invalidation is a no-op now
+        if (null != unitPosition && !unitPosition.isBound()) { unitPosition.set(template.getUnitPosition()); }
+        if (null != negativeNumbersAllowed && !negativeNumbersAllowed.isBound()) { negativeNumbersAllowed.set(template.getNegativeNumbersAllowed()); }
+    }
+
+    public Format getFormat() { return template.getFormat(); }
 
     public String getValueAsText() {
-        if (null == value.get()) {
-            return null;
-        } else if (decimalFormatSymbols.getDecimalSeparator() != '.') {
-            return value.get().toString().replace(".", Character.toString(decimalFormatSymbols.getDecimalSeparator()));
-        } else {
-            return value.get().toString();
+        if (fixedPoint) {
+            if (!hasUnscaledValue) { return null; }
+            return template.getUnitFixedPointFormat().formatPlain(_unscaledValue, textBuilder()).toString();
         }
+        final BigDecimal v = value.get();
+        return null == v ? null : FixedPointFormat.formatPlain(v, template.getDecimalSeparator(), textBuilder()).toString();
+    }
+
+    public FormatEngine createFormatEngine() {
+        return template.createFormatEngine();
     }
 
     public BigDecimal getValue() {
+        if (fixedPoint) { return hasUnscaledValue ? FixedPointFormat.toBigDecimal(_unscaledValue, getDecimals()) : null; }
         return this.value.get();
     }
     public void setValue(final BigDecimal value) {
-        this.value.set(value);
+        if (fixedPoint) {
+            setUnscaled(null != value, null == value ? 0 : FixedPointFormat.toUnscaled(value, getDecimals()));
+        } else {
+            this.value.set(value);
+        }
     }
     public ObjectProperty<BigDecimal> valueProperty() {
+        if (fixedPoint && !valueExposed) {
+            syncing = true;
+            this.value.set(getValue());
+            syncing = false;
+        }
+        valueExposed = true;
         return this.value;
     }
 
-    public int getPreDecimals() { return predecimals; }
+    /**
+     * In fixed point mode the value is kept as an unscaled long with the number
+     * of decimals as scale. Sign, plural unit and text are then computed from
+     * the long without creating BigDecimal instances. The BigDecimal value
+     * property is only kept in sync once it has been requested. Needs
+     * predecimals + decimals to be at most 18.
+     */
+    public boolean isFixedPoint() { return fixedPoint; }
+    public void setFixedPoint(final boolean fixedPoint) {
+        if (this.fixedPoint == fixedPoint) { return; }
+        if (fixedPoint) {
+            if (!FixedPointFormat.fits(getPreDecimals(), getDecimals())) { throw new IllegalStateException("Fixed point mode needs predecimals + decimals <= " + FixedPointFormat.MAX_DIGITS); }
+            final BigDecimal v = value.get();
+            this.fixedPoint = true;
+            setUnscaled(null != v, null == v ? 0 : FixedPointFormat.toUnscaled(v, getDecimals()));
+        } else {
+            final BigDecimal v = getValue();
+            this.fixedPoint       = false;
+            this.hasUnscaledValue = false;
+            this._unscaledValue   = 0;
+            syncing = true;
+            this.value.set(v);
+            syncing = false;
+            updatePrimitiveViews();
+        }
+    }
+
+    public long getUnscaledValue() { return fixedPoint ? _unscaledValue : unscaledValueProperty().get(); }
+    public void setUnscaledValue(final long unscaledValue) {
+        if (fixedPoint) {
+            setUnscaled(true, unscaledValue);
+        } else {
+            setValue(FixedPointFormat.toBigDecimal(unscaledValue, getDecimals()));
+        }
+    }
+    public LongProperty unscaledValueProperty() {
+        if (null == unscaledValue) {
+            unscaledValue = new LongPropertyBase() {
+                @Override protected void invalidated() {
+                    final long v = get();
+                    if (!syncing) { setUnscaledValue(v); }
+                }
+                @Override public Object getBean() { return FormattedTextField.this; }
+                @Override public String getName() { return "unscaledValue"; }
+            };
+            if (fixedPoint) {
+                syncing = true;
+                unscaledValue.set(_unscaledValue);
+                syncing = false;
+            } else {
+                updatePrimitiveViews();
+            }
+        }
+        return unscaledValue;
+    }
+
+    public double getDoubleValue() { return fixedPoint ? FixedPointFormat.toDouble(_unscaledValue, getDecimals()) : doubleValueProperty().get(); }
+    public void setDoubleValue(final double doubleValue) {
+        if (fixedPoint) {
+            setUnscaled(true, FixedPointFormat.fromDouble(doubleValue, getDecimals()));
+        } else {
+            setValue(BigDecimal.valueOf(doubleValue));
+        }
+    }
+    public DoubleProperty doubleValueProperty() {
+        if (null == doubleValue) {
+            doubleValue = new DoublePropertyBase() {
+                @Override protected void invalidated() {
+                    final double v = get();
+                    if (!syncing) { setDoubleValue(v); }
+                }
+                @Override public Object getBean() { return FormattedTextField.this; }
+                @Override public String getName() { return "doubleValue"; }
+            };
+            if (fixedPoint) {
+                syncing = true;
+                doubleValue.set(FixedPointFormat.toDouble(_unscaledValue, getDecimals()));
+                syncing = false;
+            } else {
+                updatePrimitiveViews();
+            }
+        }
+        return doubleValue;
+    }
+
+    public int getPreDecimals() { return template.getPreDecimals(); }
     public void setPreDecimals(final int predecimals) {
         setDecimals(predecimals, getDecimals());
     }
 
     public int getDecimals() {
-        return decimals;
+        return template.getDecimals();
     }
     public void setDecimals(final int decimals) {
         setDecimals(getPreDecimals(), decimals);
     }
 
     public void setDecimals(final int predecimals, final int decimals) {
-        this.predecimals = clamp(1, MAX_PRE_DECIMALS, predecimals);
-        this.decimals    = clamp(0, Integer.MAX_VALUE, decimals);
-        StringBuilder patternBuilder;
-        switch(format.getType()) {
-            case KM    :
-            case EURO  :
-            case DOLLAR:
-                patternBuilder = new StringBuilder("#,###,##0");
-                break;
-            default:
-                patternBuilder = new StringBuilder("0");
-                break;
-        }
-        if (decimals > 0) {
-            patternBuilder.append(".");
-            for (int i = 0 ; i < decimals ; i++) { patternBuilder.append("0"); }
-        }
-        this.format.setPattern(patternBuilder.toString());
-        this.numberFormat = format.getDecimalFormatForLocale(this.locale);
-
-        buildPattern();
-        parseAndFormat();
+        final FieldTemplate newTemplate = template.withDecimals(predecimals, decimals);
+        if (fixedPoint && !FixedPointFormat.fits(newTemplate.getPreDecimals(), newTemplate.getDecimals())) { throw new IllegalArgumentException("Fixed point mode needs predecimals + decimals <= " + FixedPointFormat.MAX_DIGITS); }
+        final long start = Metrics.start();
+        reconfigure(newTemplate, true);
+        Metrics.record(getFormat().getType(), FieldActivity.DECIMALS_CHANGED, start);
     }
 
+    /**
+     * The number of decimals shown while the field is not focused. If it is
+     * lower than the decimals the shown text is truncated, while the value
+     * and the text in edit mode keep all decimals.
+     */
+    public int getDisplayDecimals() { return template.getDisplayDecimals(); }
+    public void setDisplayDecimals(final int displayDecimals) {
+        reconfigure(template.withDisplayDecimals(displayDecimals), false);
+    }
+
+    /**
+     * In live commit mode the value follows the text while the field is being
+     * edited instead of being parsed on focus loss. Typing and deleting at the
+     * end of the text updates the value without parsing the whole text.
+     * The text itself is formatted on focus loss as before.
+     */
+    public boolean isLiveCommit() { return null != liveCommit; }
+    public void setLiveCommit(final boolean liveCommit) {
+        if (liveCommit == isLiveCommit()) { return; }
+        if (!liveCommit) { this.liveCommit.reset(); }
+        this.liveCommit = liveCommit ? new LiveCommit(this) : null;
+    }
+
+    /**
+     * Changes within the delay commit the value only once, setting a delay
+     * switches live commit on.
+     */
+    public Duration getLiveCommitDelay() { return null == liveCommit ? Duration.ZERO : liveCommit.getDelay(); }
+    public void setLiveCommitDelay(final Duration delay) {
+        setLiveCommit(true);
+        liveCommit.setDelay(delay);
+    }
+
+    /**
+     * If stepping is on, Up/Down and PageUp/PageDown step the value of the
+     * focused field, as does the scroll wheel (with shift for the page step).
+     * Steps within one pulse are applied together with a single render and
+     * holding a key down accelerates the stepping. Setting any of the step
+     * settings switches stepping on.
+     */
+    public boolean isStepping() { return null != stepper; }
+    public void setStepping(final boolean stepping) {
+        if (stepping == isStepping()) { return; }
+        if (stepping) {
+            stepper();
+        } else {
+            stepper.dispose();
+            stepper = null;
+        }
+    }
+
+    /**
+     * The step of the arrow keys and the scroll wheel, by default one unit of
+     * the last decimal. Null restores the default.
+     */
+    public BigDecimal getStep() { return null == stepper ? BigDecimal.ONE.movePointLeft(getDecimals()) : stepper.getStep(); }
+    public void setStep(final BigDecimal step) { stepper().setStep(step); }
+
+    /**
+     * The step of PageUp/PageDown, by default ten steps. Null restores the default.
+     */
+    public BigDecimal getPageStep() { return null == stepper ? getStep().movePointRight(1) : stepper.getPageStep(); }
+    public void setPageStep(final BigDecimal pageStep) { stepper().setPageStep(pageStep); }
+
+    /**
+     * Stepping doesn't go below the min value or above the max value, null
+     * means no bound. Typed values are not clamped, use
+     * ValueValidator.range() to check them.
+     */
+    public BigDecimal getMinValue() { return null == stepper ? null : stepper.getMin(); }
+    public void setMinValue(final BigDecimal minValue) { stepper().setMin(minValue); }
+
+    public BigDecimal getMaxValue() { return null == stepper ? null : stepper.getMax(); }
+    public void setMaxValue(final BigDecimal maxValue) { stepper().setMax(maxValue); }
+
+    public boolean isStepAccelerated() { return null == stepper || stepper.isAccelerated(); }
+    public void setStepAccelerated(final boolean accelerated) { stepper().setAccelerated(accelerated); }
+
+    public void increment() { stepper().step(1, false); }
+    public void decrement() { stepper().step(-1, false); }
+
     public Locale getLocale() {
-        return locale;
+        return template.getLocale();
     }
     public void setLocale(final Locale locale) {
-        this.locale               = locale;
-        this.decimalFormatSymbols = new DecimalFormatSymbols(this.locale);
-        this.numberFormat         = format.getDecimalFormatForLocale(this.locale);
-        parseAndFormat();
+        final long start = Metrics.start();
+        reconfigure(template.withLocale(locale), true);
+        Metrics.record(getFormat().getType(), FieldActivity.LOCALE_CHANGED, start);
     }
 
+    /**
+     * Returns a copy of the symbols of the locale, changing it has no effect
+     * on the field.
+     */
     public DecimalFormatSymbols getDecimalFormatSymbols() {
-        return decimalFormatSymbols;
+        return template.getDecimalFormatSymbols();
     }
 
-    public boolean getNegativeNumbersAllowed() { return null == negativeNumbersAllowed ? _negativeNumbersAllowed : negativeNumbersAllowed.get(); }
+    public boolean getNegativeNumbersAllowed() { return null == negativeNumbersAllowed ? template.getNegativeNumbersAllowed() : negativeNumbersAllowed.get(); }
     public void setNegativeNumbersAllowed(final boolean allowed) {
         if (null == negativeNumbersAllowed) {
-            _negativeNumbersAllowed = allowed;
+            applyTemplate(template.withNegativeNumbersAllowed(allowed));
         } else {
             negativeNumbersAllowed.set(allowed);
         }
     }
     public BooleanProperty negativeNumbersAllowedProperty() {
         if (null == negativeNumbersAllowed) {
-            negativeNumbersAllowed = new BooleanPropertyBase(_negativeNumbersAllowed) {
+            negativeNumbersAllowed = new BooleanPropertyBase(template.getNegativeNumbersAllowed()) {
+                @Override protected void invalidated() { applyTemplate(template.withNegativeNumbersAllowed(get())); }
                 @Override public Object getBean() { return FormattedTextField.this; }
                 @Override public String getName() { return "negativeNumbersAllowed"; }
             };
@@ -502,15 +963,189 @@ public class FormattedTextField extends TextField {
         return negativeNumbersAllowed;
     }
 
-    public UnitPos getUnitPosition() { return unitPosition.get(); }
-    public void setUnitPosition(final UnitPos unitPosition) { this.unitPosition.set(unitPosition); }
-    public ObjectProperty<UnitPos> unitPositionProperty() { return unitPosition; }
+    public UnitPos getUnitPosition() { return null == unitPosition ? template.getUnitPosition() : unitPosition.get(); }
+    public void setUnitPosition(final UnitPos unitPosition) {
+        if (null == this.unitPosition) {
+            reconfigure(template.withUnitPosition(unitPosition), false);
+        } else {
+            this.unitPosition.set(unitPosition);
+        }
+    }
+    public ObjectProperty<UnitPos> unitPositionProperty() {
+        if (null == unitPosition) {
+            unitPosition = new ObjectPropertyBase<>(template.getUnitPosition()) {
+                @Override protected void invalidated() { reconfigure(template.withUnitPosition(get()), false); }
+                @Override public Object getBean() { return FormattedTextField.this; }
+                @Override public String getName() { return "unitPosition"; }
+            };
+        }
+        return unitPosition;
+    }
 
-    public final boolean isNegative() { return negative.get(); }
-    public final ReadOnlyBooleanProperty negativeProperty() { return negative; }
+    public boolean isUnitShownSeparately() { return unitShownSeparately; }
+
+    /**
+     * Returns the unit or plural units that belong to the current value.
+     */
+    public String getUnitText() {
+        boolean plural;
+        if (fixedPoint) {
+            try {
+                plural = hasUnscaledValue && template.getUnitsFixedPointFormat().isPlural(null == toShown ? _unscaledValue : toShown.convert(_unscaledValue));
+            } catch (ArithmeticException e) {
+                plural = true;
+            }
+        } else {
+            plural = null != value.get() && template.isPlural(null == toShown ? value.get() : toShown.convert(value.get(), getDecimals()));
+        }
+        return (plural ? getFormat().getUnits() : getFormat().getUnit()).trim();
+    }
+
+    /**
+     * The unit of the value. With a unit the text shows the symbols of the
+     * unit instead of the unit of the Format and the value can be shown in
+     * any other unit of the same dimension, while the value itself always
+     * stays in this unit. Changing the unit doesn't change the value.
+     */
+    public Unit getUnit() { return unit; }
+    public void setUnit(final Unit unit) {
+        if (this.unit == unit) { return; }
+        beginUpdate();
+        try {
+            // the text has to be reparsed in its unit, the conversion depends on the unit of the value
+            showUnit(null);
+            this.unit = unit;
+            if (null == unit || (null != displayUnit && !displayUnit.isConvertibleTo(unit))) { displayUnit = null; }
+            if (null == unit) { autoScaled = false; }
+            updateShownUnit();
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * The unit the value is shown and edited in, by default the unit of the
+     * value. The value is converted with an exact factor and rounded to the
+     * decimals of the field, the value itself doesn't change.
+     */
+    public Unit getDisplayUnit() { return null == displayUnit ? unit : displayUnit; }
+    public void setDisplayUnit(final Unit displayUnit) {
+        if (null != displayUnit && !displayUnit.isConvertibleTo(unit)) { throw new IllegalArgumentException("Display unit must have the dimension of the unit " + unit); }
+        this.displayUnit = displayUnit;
+        updateShownUnit();
+    }
+
+    /**
+     * If true the unfocused field shows the value in the largest unit of the
+     * dimension the value is at least one of, e.g. 1500 m as 1.5 km and
+     * 0.2 m as 200 mm. Zero is shown in the display unit.
+     */
+    public boolean isAutoScale() { return autoScaled; }
+    public void setAutoScale(final boolean autoScale) {
+        if (autoScale && (null == unit || !unit.getDimension().isAutoScalable())) { throw new IllegalStateException("Auto scaling needs a unit with an auto scalable dimension"); }
+        autoScaled = autoScale;
+        updateShownUnit();
+    }
+
+    /**
+     * Returns the unit the text currently shows.
+     */
+    public Unit getShownUnit() { return shownUnit; }
+
+    /**
+     * Publishes every committed value with the old value and a timestamp,
+     * in live commit mode that includes the values while typing. Subscribers
+     * choose the executor they are called on and how to handle events they
+     * can't keep up with, see Backpressure.
+     */
+    public ValuePublisher getValuePublisher() {
+        if (null == publisher) {
+            publisher = new ValuePublisher();
+            publishValues();
+        }
+        return publisher;
+    }
+
+    /**
+     * Validators check the value whenever it changes. They run one after the
+     * other on the validation executor, off the JavaFX application thread,
+     * and the first message marks the value as invalid. The result is
+     * reported by the validation state and the "invalid" pseudo-class,
+     * "validating" is set while a check is pending.
+     */
+    public ObservableList<ValueValidator> getValidators() { return validation().getValidators(); }
+
+    public ValidationState getValidationState() { return null == validation ? ValidationState.VALID : validation.getState(); }
+    public ReadOnlyObjectProperty<ValidationState> validationStateProperty() { return validation().stateProperty(); }
+
+    public String getValidationMessage() { return null == validation ? null : validation.getMessage(); }
+    public ReadOnlyStringProperty validationMessageProperty() { return validation().messageProperty(); }
+
+    /**
+     * Executor the validators run on, by default virtual threads where
+     * available and a pool of daemon threads otherwise.
+     */
+    public Executor getValidationExecutor() { return null == validation ? FieldValidation.DEFAULT_EXECUTOR : validation.getExecutor(); }
+    public void setValidationExecutor(final Executor executor) { validation().setExecutor(executor); }
+
+    /**
+     * Value changes within this delay only trigger one validation.
+     */
+    public Duration getValidationDelay() { return null == validation ? Duration.ZERO : validation.getDelay(); }
+    public void setValidationDelay(final Duration delay) { validation().setDelay(delay); }
+
+    /**
+     * Validates the current value again, e.g. after a value a cross field
+     * rule depends on has changed.
+     */
+    public void revalidate() {
+        if (null != validation) { validation.validate(); }
+    }
+
+    public final boolean isNegative() { return null == negative ? _negative : negative.get(); }
+    private void setNegative(final boolean negative) {
+        if (null == this.negative) {
+            if (_negative == negative) { return; }
+            _negative = negative;
+            pseudoClassStateChanged(NEGATIVE_PSEUDO_CLASS, negative);
+        } else {
+            this.negative.set(negative);
+        }
+    }
+    public final ReadOnlyBooleanProperty negativeProperty() {
+        if (null == negative) {
+            negative = new BooleanPropertyBase(_negative) {
+                @Override protected void invalidated() {
+                    _negative = get();
+                    pseudoClassStateChanged(NEGATIVE_PSEUDO_CLASS, _negative);
+                }
+                @Override public Object getBean() { return FormattedTextField.this; }
+                @Override public String getName() { return "negative"; }
+            };
+        }
+        return negative;
+    }
+
+    /**
+     * Text with tabs or line breaks, as copied from a spreadsheet, is pasted
+     * value by value into this field and the following fields of its group,
+     * see FormattedFieldGroup.paste(). Without a group only the first value
+     * is pasted into this field.
+     */
+    @Override public void paste() {
+        final Clipboard clipboard = Clipboard.getSystemClipboard();
+        final String    text      = clipboard.hasString() ? clipboard.getString() : null;
+        if (!isEditable() || !BulkPaste.isBulk(text)) {
+            super.paste();
+        } else if (null != group && group.getFields().contains(this)) {
+            group.paste(this, text);
+        } else {
+            BulkPaste.paste(Collections.singletonList(this), text);
+        }
+    }
 
     @Override public String getUserAgentStylesheet() {
-        if (null == userAgentStyleSheet) { userAgentStyleSheet = getClass().getResource("formatted-textfield.css").toExternalForm(); }
+        if (null == userAgentStyleSheet) { userAgentStyleSheet = FormattedTextField.class.getResource("formatted-textfield.css").toExternalForm(); }
         return userAgentStyleSheet;
     }
 }
@@ -78,6 +78,11 @@ public class FormattedTextFieldBuilder<B extends FormattedTextFieldBuilder<B>> {
         return (B)this;
     }
 
+    public final B displayDecimals(final int displayDecimals) {
+        properties.put("displayDecimals", new SimpleIntegerProperty(displayDecimals));
+        return (B)this;
+    }
+
     public final B locale(final Locale locale) {
         properties.put("locale", new SimpleObjectProperty<>(locale));
         return (B)this;
@@ -98,26 +103,54 @@ public class FormattedTextFieldBuilder<B extends FormattedTextFieldBuilder<B>> {
         return (B)this;
     }
 
+    public final B unit(final Unit unit) {
+        properties.put("unit", new SimpleObjectProperty<>(unit));
+        return (B)this;
+    }
+
+    public final B displayUnit(final Unit displayUnit) {
+        properties.put("displayUnit", new SimpleObjectProperty<>(displayUnit));
+        return (B)this;
+    }
+
+    public final B autoScale(final boolean autoScale) {
+        properties.put("autoScale", new SimpleBooleanProperty(autoScale));
+        return (B)this;
+    }
+
+    /**
+     * Fields built in lean mode share one interned FieldTemplate with all
+     * other lean fields of the same settings instead of creating their own.
+     */
+    public final B lean(final boolean lean) {
+        properties.put("lean", new SimpleBooleanProperty(lean));
+        return (B)this;
+    }
+
+
+    /**
+     * Validates the collected settings and precompiles them into a template
+     * that can be used to create any number of fields.
+     */
+    public final FieldTemplate buildTemplate() {
+        final int           preDecimals = properties.containsKey("preDecimals") ? ((IntegerProperty) properties.get("preDecimals")).get() : FieldTemplate.MAX_PRE_DECIMALS;
+        final int           decimals    = properties.containsKey("decimals") ? ((IntegerProperty) properties.get("decimals")).get() : 0;
+        final Locale        locale      = properties.containsKey("locale") ? ((ObjectProperty<Locale>) properties.get("locale")).get() : Locale.getDefault();
+        final boolean       negative    = properties.containsKey("negativeNumbersAllowed") && ((BooleanProperty) properties.get("negativeNumbersAllowed")).get();
+        final UnitPos       unitPos     = properties.containsKey("unitPosition") ? ((ObjectProperty<UnitPos>) properties.get("unitPosition")).get() : UnitPos.AFTER;
+        final String        promptText  = properties.containsKey("promptText") ? ((StringProperty) properties.get("promptText")).get() : null;
+        final boolean       lean        = properties.containsKey("lean") && ((BooleanProperty) properties.get("lean")).get();
+        final FieldTemplate template    = FieldTemplate.of(new Format(type), preDecimals, decimals, locale, negative, unitPos, promptText);
+        final FieldTemplate display     = properties.containsKey("displayDecimals") ? template.withDisplayDecimals(((IntegerProperty) properties.get("displayDecimals")).get()) : template;
+        return lean ? display.intern() : display;
+    }
 
     public final FormattedTextField build() {
-        final FormattedTextField formattedTextField = new FormattedTextField(new Format(type), 0);
-        for (String key : properties.keySet()) {
-            if("value".equals(key)) {
-                formattedTextField.setValue(((ObjectProperty<BigDecimal>) properties.get(key)).get());
-            } else if ("preDecimals".equals(key)) {
-                formattedTextField.setPreDecimals(((IntegerProperty) properties.get(key)).get());
-            } else if("decimals".equals(key)) {
-                formattedTextField.setDecimals(((IntegerProperty) properties.get(key)).get());
-            } else if("locale".equals(key)) {
-                formattedTextField.setLocale(((ObjectProperty<Locale>) properties.get(key)).get());
-            } else if ("promptText".equals(key)) {
-                formattedTextField.setPromptText(((StringProperty) properties.get(key)).get());
-            } else if ("negativeNumbersAllowed".equals(key)) {
-                formattedTextField.setNegativeNumbersAllowed(((BooleanProperty) properties.get(key)).get());
-            } else if ("unitPosition".equals(key)) {
-                formattedTextField.setUnitPosition(((ObjectProperty<UnitPos>) properties.get(key)).get());
-            }
-        }
-        return formattedTextField;
+        final BigDecimal         value = properties.containsKey("value") ? ((ObjectProperty<BigDecimal>) properties.get("value")).get() : null;
+        final FormattedTextField field = new FormattedTextField(buildTemplate(), value);
+        if (properties.containsKey("unit"))        { field.setUnit(((ObjectProperty<Unit>) properties.get("unit")).get()); }
+        if (properties.containsKey("displayUnit")) { field.setDisplayUnit(((ObjectProperty<Unit>) properties.get("displayUnit")).get()); }
+        if (properties.containsKey("autoScale"))   { field.setAutoScale(((BooleanProperty) properties.get("autoScale")).get()); }
+        return field;
     }
 }
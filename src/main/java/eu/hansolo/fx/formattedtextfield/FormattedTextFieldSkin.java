@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import javafx.beans.InvalidationListener;
+import javafx.geometry.HPos;
+import javafx.geometry.VPos;
+import javafx.scene.control.Label;
+import javafx.scene.control.skin.TextFieldSkin;
+
+
+/**
+ * Skin that shows the unit of a FormattedTextField in a separate, non editable
+ * label in front of or after the text (depending on the UnitPos). The text of
+ * the field then only contains the number, which saves reformatting the text
+ * on every focus change.
+ * Usage: field.setSkin(new FormattedTextFieldSkin(field)) or in CSS
+ * .formatted-textfield { -fx-skin: "eu.hansolo.fx.formattedtextfield.FormattedTextFieldSkin"; }
+ */
+public class FormattedTextFieldSkin extends TextFieldSkin {
+    private static final double               GAP = 4;
+    private        final FormattedTextField   field;
+    private        final Label                unitLabel;
+    private        final InvalidationListener unitListener;
+
+
+    // ******************** Constructors **************************************
+    public FormattedTextFieldSkin(final FormattedTextField field) {
+        super(field);
+        this.field        = field;
+        this.unitLabel    = new Label();
+        this.unitListener = o -> updateUnit();
+
+        unitLabel.getStyleClass().add("unit");
+        unitLabel.setManaged(false);
+        unitLabel.setMouseTransparent(true);
+        getChildren().add(unitLabel);
+
+        field.setUnitShownSeparately(true);
+        field.textProperty().addListener(unitListener);
+        field.unitPositionProperty().addListener(unitListener);
+        updateUnit();
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override protected void layoutChildren(final double x, final double y, final double w, final double h) {
+        if (unitLabel.getText().isEmpty()) {
+            super.layoutChildren(x, y, w, h);
+            return;
+        }
+        final double labelWidth = snapSizeX(unitLabel.prefWidth(-1));
+        final double textWidth  = Math.max(0, w - labelWidth - GAP);
+        if (UnitPos.IN_FRONT == field.getUnitPosition()) {
+            super.layoutChildren(x + labelWidth + GAP, y, textWidth, h);
+            layoutInArea(unitLabel, x, y, labelWidth, h, 0, HPos.LEFT, VPos.CENTER);
+        } else {
+            super.layoutChildren(x, y, textWidth, h);
+            layoutInArea(unitLabel, x + textWidth + GAP, y, labelWidth, h, 0, HPos.RIGHT, VPos.CENTER);
+        }
+    }
+
+    @Override protected double computePrefWidth(final double height, final double topInset, final double rightInset, final double bottomInset, final double leftInset) {
+        final double prefWidth = super.computePrefWidth(height, topInset, rightInset, bottomInset, leftInset);
+        return unitLabel.getText().isEmpty() ? prefWidth : prefWidth + snapSizeX(unitLabel.prefWidth(-1)) + GAP;
+    }
+
+    @Override public void dispose() {
+        field.textProperty().removeListener(unitListener);
+        field.unitPositionProperty().removeListener(unitListener);
+        // in JavaFX 11 the old skin is disposed after the new one has been set
+        if (field.getSkin() == this || !(field.getSkin() instanceof FormattedTextFieldSkin)) { field.setUnitShownSeparately(false); }
+        getChildren().remove(unitLabel);
+        super.dispose();
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private void updateUnit() {
+        final String unit = field.getUnitText();
+        if (!unit.equals(unitLabel.getText())) { unitLabel.setText(unit); }
+    }
+}
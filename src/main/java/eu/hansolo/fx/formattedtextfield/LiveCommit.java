@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import javafx.animation.Animation;
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+
+
+/**
+ * Keeps the number of the text that is being typed into a FormattedTextField
+ * as sign, unscaled long and scale. The text has already been accepted by the
+ * NumericInputValidator, so typing or deleting a character at the end only
+ * updates the number, any other edit scans the text once. Values with more
+ * than 18 digits are parsed by the DecimalParser of the template.
+ * Created when live commit is switched on.
+ */
+final class LiveCommit {
+    private static final int                MAX_LONG_DIGITS = 18;
+    private final        FormattedTextField field;
+    private              String             text;
+    private              boolean            negative;
+    private              boolean            fraction;
+    private              long               unscaled;
+    private              int                scale;
+    private              int                digits;
+    private              BigDecimal         bigValue;
+    private              Duration           delay;
+    private              PauseTransition    debounce;
+
+
+    // ******************** Constructors **************************************
+    LiveCommit(final FormattedTextField field) {
+        this.field = field;
+        this.delay = Duration.ZERO;
+    }
+
+
+    // ******************** Methods *******************************************
+    Duration getDelay() { return delay; }
+    void setDelay(final Duration delay) {
+        this.delay = null == delay || delay.lessThan(Duration.ZERO) ? Duration.ZERO : delay;
+        if (null != debounce) { debounce.setDuration(this.delay); }
+    }
+
+    /**
+     * Forgets the text, the next change is scanned completely.
+     */
+    void reset() {
+        if (null != debounce) { debounce.stop(); }
+        text = null;
+    }
+
+    void textChanged(final String newText) {
+        if (!update(null == newText ? "" : newText)) {
+            // the pending change belongs to a text that is gone
+            reset();
+            return;
+        }
+        if (delay.greaterThan(Duration.ZERO)) {
+            if (null == debounce) {
+                debounce = new PauseTransition(delay);
+                debounce.setOnFinished(e -> commit());
+            }
+            debounce.playFromStart();
+        } else {
+            commit();
+        }
+    }
+
+    /**
+     * Commits a pending change right away and returns true if the value
+     * belongs to the given text, so it doesn't have to be parsed again.
+     */
+    boolean flush(final String currentText) {
+        if (null == text || !text.equals(currentText) || !hasDigits()) { return false; }
+        if (null != debounce && debounce.getStatus() == Animation.Status.RUNNING) {
+            debounce.stop();
+            commit();
+        }
+        return true;
+    }
+
+    private void commit() {
+        if (null == text) { return; }
+        if (text.isEmpty()) {
+            field.commitLiveValue(null);
+        } else if (!hasDigits()) {
+            // "-" or a lone decimal separator, wait for the first digit
+        } else if (null != bigValue) {
+            field.commitLiveValue(bigValue);
+        } else if (field.isFixedPoint()) {
+            field.commitLiveUnscaled(FixedPointFormat.rescale(negative ? -unscaled : unscaled, scale, field.getDecimals()));
+        } else {
+            field.commitLiveValue(BigDecimal.valueOf(negative ? -unscaled : unscaled, scale));
+        }
+    }
+
+    private boolean hasDigits() { return digits > 0; }
+
+    private boolean update(final String newText) {
+        final char separator = field.getTemplate().getDecimalSeparator();
+        if (null != text && null == bigValue) {
+            final int length = text.length();
+            if (newText.length() == length + 1 && newText.startsWith(text)) {
+                final char c = newText.charAt(length);
+                if (isDigit(c) && digits < MAX_LONG_DIGITS) {
+                    unscaled = unscaled * 10 + (c - '0');
+                    digits++;
+                    if (fraction) { scale++; }
+                    text = newText;
+                    return true;
+                }
+                if (c == separator && !fraction) {
+                    fraction = true;
+                    text     = newText;
+                    return true;
+                }
+            } else if (newText.length() == length - 1 && text.startsWith(newText)) {
+                final char c = text.charAt(length - 1);
+                if (isDigit(c)) {
+                    unscaled /= 10;
+                    digits--;
+                    if (fraction) { scale--; }
+                } else if (c == separator) {
+                    fraction = false;
+                } else {
+                    negative = false;
+                }
+                text = newText;
+                return true;
+            }
+        }
+        return scan(newText, separator);
+    }
+
+    private boolean scan(final String newText, final char separator) {
+        negative = false;
+        fraction = false;
+        unscaled = 0;
+        scale    = 0;
+        digits   = 0;
+        bigValue = null;
+        final int length = newText.length();
+        int       index  = 0;
+        if (index < length && newText.charAt(index) == '-') {
+            negative = true;
+            index++;
+        }
+        for ( ; index < length ; index++) {
+            final char c = newText.charAt(index);
+            if (isDigit(c)) {
+                if (digits < MAX_LONG_DIGITS) { unscaled = unscaled * 10 + (c - '0'); }
+                digits++;
+                if (fraction) { scale++; }
+            } else if (c == separator && !fraction) {
+                fraction = true;
+            } else {
+                return false;
+            }
+        }
+        if (digits > MAX_LONG_DIGITS) {
+            try {
+                bigValue = field.getTemplate().getParser().parse(newText);
+            } catch (ParseException e) {
+                return false;
+            }
+        }
+        text = newText;
+        return true;
+    }
+
+    private static boolean isDigit(final char c) { return c >= '0' && c <= '9'; }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Entry point for the instrumentation of FormattedTextField.
+ * Filter, parse, render and reconfiguration activity is reported as JDK Flight
+ * Recorder events (category "JavaFX / FormattedTextField") while a recording
+ * is running and to the MetricsRegistry if one has been set. If neither is
+ * the case the instrumented code only reads a volatile flag.
+ */
+public final class Metrics {
+    static final         long              DISABLED   = Long.MIN_VALUE;
+    private static final Set<Long>         RECORDINGS = ConcurrentHashMap.newKeySet();
+    private static volatile MetricsRegistry registry;
+    private static volatile boolean         enabled;
+
+    static {
+        try {
+            FlightRecorder.addListener(new FlightRecorderListener() {
+                @Override public void recordingStateChanged(final Recording recording) { updateRecording(recording); }
+            });
+            if (FlightRecorder.isInitialized()) { FlightRecorder.getFlightRecorder().getRecordings().forEach(Metrics::updateRecording); }
+        } catch (SecurityException | IllegalStateException e) {
+            // no permission to watch recordings or Flight Recorder can't be initialized, only the registry will be used
+        }
+    }
+
+
+    // ******************** Constructors **************************************
+    private Metrics() {}
+
+
+    // ******************** Public Methods ************************************
+    public static MetricsRegistry getRegistry() { return registry; }
+    public static void setRegistry(final MetricsRegistry registry) {
+        Metrics.registry = registry;
+        updateEnabled();
+    }
+
+    public static boolean isEnabled() { return enabled; }
+
+
+    // ******************** Package Methods ***********************************
+    /**
+     * Returns the start time for a measurement or DISABLED if nobody listens.
+     */
+    static long start() { return enabled ? System.nanoTime() : DISABLED; }
+
+    static void record(final StandardType type, final FieldActivity activity, final long start) {
+        if (DISABLED == start) { return; }
+        final long nanos = System.nanoTime() - start;
+        final MetricsRegistry registry = Metrics.registry;
+        if (null != registry) { registry.record(type, activity, nanos); }
+        MetricsEvents.commit(type, activity, nanos);
+    }
+
+    static void count(final StandardType type, final FieldActivity activity) {
+        if (!enabled) { return; }
+        final MetricsRegistry registry = Metrics.registry;
+        if (null != registry) { registry.record(type, activity, 0); }
+        MetricsEvents.commit(type, activity, 0);
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private static void updateRecording(final Recording recording) {
+        if (recording.getState() == RecordingState.RUNNING) {
+            RECORDINGS.add(recording.getId());
+        } else {
+            RECORDINGS.remove(recording.getId());
+        }
+        updateEnabled();
+    }
+
+    private static void updateEnabled() { enabled = null != registry || !RECORDINGS.isEmpty(); }
+}
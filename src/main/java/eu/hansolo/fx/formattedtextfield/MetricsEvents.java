@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+/**
+ * The Flight Recorder events of FormattedTextField.
+ */
+final class MetricsEvents {
+
+    // ******************** Constructors **************************************
+    private MetricsEvents() {}
+
+
+    // ******************** Methods *******************************************
+    static void commit(final StandardType type, final FieldActivity activity, final long nanos) {
+        final FieldEvent event;
+        switch (activity) {
+            case FILTER_ACCEPTED  :
+            case FILTER_REJECTED  : event = new FilterEvent(FieldActivity.FILTER_ACCEPTED == activity); break;
+            case PARSE            :
+            case PARSE_FAILED     : event = new ParseEvent(FieldActivity.PARSE_FAILED == activity); break;
+            case PATTERN_APPLIED  : event = new PatternEvent(); break;
+            case DECIMALS_CHANGED :
+            case LOCALE_CHANGED   : event = new ReconfigurationEvent(FieldActivity.DECIMALS_CHANGED == activity ? "decimals" : "locale"); break;
+            case VALIDATION       :
+            case VALIDATION_FAILED: event = new ValidationEvent(FieldActivity.VALIDATION == activity); break;
+            default               : event = new RenderEvent(); break;
+        }
+        if (!event.shouldCommit()) { return; }
+        event.type    = type.name();
+        event.elapsed = nanos;
+        event.commit();
+    }
+
+
+    // ******************** Inner Classes *************************************
+    @Category({ "JavaFX", "FormattedTextField" })
+    @StackTrace(false)
+    abstract static class FieldEvent extends Event {
+        @Label("Type")
+        String type;
+
+        @Label("Elapsed")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    @Name("eu.hansolo.fx.formattedtextfield.Filter")
+    @Label("Filter")
+    @Description("A keystroke or paste has been checked by the input filter")
+    static final class FilterEvent extends FieldEvent {
+        @Label("Accepted")
+        boolean accepted;
+
+        FilterEvent(final boolean accepted) { this.accepted = accepted; }
+    }
+
+    @Name("eu.hansolo.fx.formattedtextfield.Parse")
+    @Label("Parse")
+    @Description("The text of a field has been parsed by parseAndFormat()")
+    static final class ParseEvent extends FieldEvent {
+        @Label("Failed")
+        boolean failed;
+
+        ParseEvent(final boolean failed) { this.failed = failed; }
+    }
+
+    @Name("eu.hansolo.fx.formattedtextfield.Pattern")
+    @Label("Pattern Applied")
+    @Description("The pattern of the field's Format has been applied again")
+    static final class PatternEvent extends FieldEvent {}
+
+    @Name("eu.hansolo.fx.formattedtextfield.Reconfiguration")
+    @Label("Reconfiguration")
+    @Description("The decimals or the locale of a field have been changed")
+    static final class ReconfigurationEvent extends FieldEvent {
+        @Label("Property")
+        String property;
+
+        ReconfigurationEvent(final String property) { this.property = property; }
+    }
+
+    @Name("eu.hansolo.fx.formattedtextfield.Render")
+    @Label("Render")
+    @Description("A value has been formatted into the text of a field")
+    static final class RenderEvent extends FieldEvent {}
+
+    @Name("eu.hansolo.fx.formattedtextfield.Validation")
+    @Label("Validation")
+    @Description("The validators of a field have checked its value")
+    static final class ValidationEvent extends FieldEvent {
+        @Label("Valid")
+        boolean valid;
+
+        ValidationEvent(final boolean valid) { this.valid = valid; }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+
+/**
+ * Receives the activity of all FormattedTextFields once it has been set with
+ * Metrics.setRegistry(). Implementations are called on the thread that did the
+ * work, which is usually the JavaFX application thread, so they should be fast.
+ */
+@FunctionalInterface
+public interface MetricsRegistry {
+
+    /**
+     * @param type     the StandardType of the field
+     * @param activity what has been done
+     * @param nanos    how long it took, 0 for activities that are only counted
+     */
+    void record(StandardType type, FieldActivity activity, long nanos);
+}
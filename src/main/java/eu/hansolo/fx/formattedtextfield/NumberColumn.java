@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+
+/**
+ * A column of a FormattedNumberGrid. The values are stored as unscaled longs
+ * (value = unscaled / 10^decimals) in a LongBuffer, which can be on or off
+ * heap, and are formatted with the fixed point formats of the template, so
+ * no BigDecimal or DecimalFormat is involved while scrolling. Recently
+ * formatted texts are cached per column. EMPTY marks a cell without value.
+ * The template needs predecimals + decimals to be at most 18.
+ */
+public final class NumberColumn {
+    public  static final long          EMPTY      = Long.MIN_VALUE;
+    private static final int           CACHE_SIZE = 256;
+    private final        String        title;
+    private final        FieldTemplate template;
+    private final        LongBuffer    values;
+    private final        StringBuilder builder;
+    private final        long[]        cachedValues;
+    private final        String[]      cachedTexts;
+    private              double        width;
+
+
+    // ******************** Constructors **************************************
+    public NumberColumn(final String title, final FieldTemplate template, final int rowCount) {
+        this(title, template, LongBuffer.wrap(new long[rowCount]));
+        clear();
+    }
+    public NumberColumn(final String title, final FieldTemplate template, final LongBuffer values) {
+        if (null == template) { throw new IllegalArgumentException("template cannot be null"); }
+        if (null == values)   { throw new IllegalArgumentException("values cannot be null"); }
+        if (!FixedPointFormat.fits(template.getPreDecimals(), template.getDecimals())) { throw new IllegalArgumentException("A column needs predecimals + decimals <= " + FixedPointFormat.MAX_DIGITS); }
+        this.title        = null == title ? "" : title;
+        this.template     = template;
+        this.values       = values;
+        this.builder      = new StringBuilder(32);
+        this.cachedValues = new long[CACHE_SIZE];
+        this.cachedTexts  = new String[CACHE_SIZE];
+        this.width        = 100;
+    }
+
+
+    // ******************** Public Methods ************************************
+    /**
+     * Creates a column whose values are stored off heap in a direct buffer.
+     */
+    public static NumberColumn direct(final String title, final FieldTemplate template, final int rowCount) {
+        final NumberColumn column = new NumberColumn(title, template, ByteBuffer.allocateDirect(rowCount * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer());
+        column.clear();
+        return column;
+    }
+
+    public String getTitle() { return title; }
+
+    public FieldTemplate getTemplate() { return template; }
+
+    public LongBuffer getValues() { return values; }
+
+    public int getRowCount() { return values.limit(); }
+
+    public double getWidth() { return width; }
+    public void setWidth(final double width) { this.width = Math.max(1, width); }
+
+    public long get(final int row) { return values.get(row); }
+    public void set(final int row, final long unscaled) { values.put(row, unscaled); }
+
+    public boolean isEmpty(final int row) { return EMPTY == values.get(row); }
+
+    public BigDecimal getValue(final int row) {
+        final long unscaled = values.get(row);
+        return EMPTY == unscaled ? null : FixedPointFormat.toBigDecimal(unscaled, template.getDecimals());
+    }
+    public void setValue(final int row, final BigDecimal value) {
+        values.put(row, null == value ? EMPTY : FixedPointFormat.toUnscaled(value, template.getDecimals()));
+    }
+
+    public double getDouble(final int row) {
+        final long unscaled = values.get(row);
+        return EMPTY == unscaled ? Double.NaN : FixedPointFormat.toDouble(unscaled, template.getDecimals());
+    }
+
+    public void clear() {
+        for (int row = 0, count = values.limit() ; row < count ; row++) { values.put(row, EMPTY); }
+    }
+
+    /**
+     * Returns the text of the given cell like a FormattedTextField with the
+     * same template shows it while not focused.
+     */
+    public String format(final int row) { return formatUnscaled(values.get(row)); }
+
+
+    // ******************** Package Methods ***********************************
+    String formatUnscaled(final long unscaled) {
+        if (EMPTY == unscaled) { return ""; }
+        final int slot = (int) (unscaled ^ (unscaled >>> 32)) & (CACHE_SIZE - 1);
+        if (null != cachedTexts[slot] && cachedValues[slot] == unscaled) { return cachedTexts[slot]; }
+        final FixedPointFormat unitsFormat = template.getUnitsFixedPointFormat();
+        final FixedPointFormat format      = unitsFormat.isPlural(unscaled) ? unitsFormat : template.getUnitFixedPointFormat();
+        builder.setLength(0);
+        final String text = format.format(unscaled, builder).toString();
+        cachedValues[slot] = unscaled;
+        cachedTexts[slot]  = text;
+        return text;
+    }
+}
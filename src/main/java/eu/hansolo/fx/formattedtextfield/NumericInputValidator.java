@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+
+/**
+ * Accepts the same input as the former keystroke regex
+ * (?!(?:\D*\d){p+d+1,})[-]?\d{0,p}(?:\SEP\d{0,d})? but checks it in one
+ * linear pass without creating a Matcher.
+ * The digit count lookahead of the regex is implied by the two digit limits,
+ * so it needs no extra check.
+ */
+public final class NumericInputValidator {
+    private final int     predecimals;
+    private final int     decimals;
+    private final boolean negativeNumbersAllowed;
+    private final char    decimalSeparator;
+
+
+    // ******************** Constructors **************************************
+    public NumericInputValidator(final int predecimals, final int decimals, final boolean negativeNumbersAllowed, final char decimalSeparator) {
+        if (predecimals < 0) { throw new IllegalArgumentException("predecimals cannot be negative"); }
+        if (decimals < 0)    { throw new IllegalArgumentException("decimals cannot be negative"); }
+        this.predecimals            = predecimals;
+        this.decimals               = decimals;
+        this.negativeNumbersAllowed = negativeNumbersAllowed;
+        this.decimalSeparator       = decimalSeparator;
+    }
+
+
+    // ******************** Public Methods ************************************
+    public boolean isValid(final CharSequence text) {
+        if (null == text) { return false; }
+        final int length = text.length();
+        int       index  = 0;
+
+        if (negativeNumbersAllowed && index < length && text.charAt(index) == '-') { index++; }
+
+        int digits = 0;
+        while (index < length && isDigit(text.charAt(index))) {
+            if (++digits > predecimals) { return false; }
+            index++;
+        }
+        if (index == length) { return true; }
+
+        if (decimals == 0 || text.charAt(index) != decimalSeparator) { return false; }
+        index++;
+
+        digits = 0;
+        while (index < length && isDigit(text.charAt(index))) {
+            if (++digits > decimals) { return false; }
+            index++;
+        }
+        return index == length;
+    }
+
+    public int getPredecimals() { return predecimals; }
+
+    public int getDecimals() { return decimals; }
+
+    public boolean getNegativeNumbersAllowed() { return negativeNumbersAllowed; }
+
+    public char getDecimalSeparator() { return decimalSeparator; }
+
+
+    // ******************** Private Methods ***********************************
+    private static boolean isDigit(final char c) { return c >= '0' && c <= '9'; }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.math.BigDecimal;
+
+
+/**
+ * The outcome of pasting several values into a number of fields. Value i
+ * has been pasted into field i, values that could not be parsed have an
+ * error message and left their field unchanged. Values beyond the last
+ * field are ignored.
+ */
+public final class PasteResult {
+    private final FormattedTextField[] fields;
+    private final String[]             texts;
+    private final BigDecimal[]         values;
+    private final String[]             errors;
+    private final int                  errorCount;
+    private final int                  ignoredCount;
+
+
+    // ******************** Constructors **************************************
+    PasteResult(final FormattedTextField[] fields, final String[] texts, final BigDecimal[] values, final String[] errors, final int ignoredCount) {
+        this.fields       = fields;
+        this.texts        = texts;
+        this.values       = values;
+        this.errors       = errors;
+        this.ignoredCount = ignoredCount;
+        int count = 0;
+        for (String error : errors) { if (null != error) { count++; } }
+        this.errorCount   = count;
+    }
+
+
+    // ******************** Public Methods ************************************
+    public int size() { return fields.length; }
+
+    public FormattedTextField getField(final int index) { return fields[index]; }
+
+    public String getText(final int index) { return texts[index]; }
+
+    /**
+     * The pasted value in the unit of the field, null for an empty value or
+     * an error.
+     */
+    public BigDecimal getValue(final int index) { return values[index]; }
+
+    public String getError(final int index) { return errors[index]; }
+
+    public boolean isPasted(final int index) { return null == errors[index]; }
+
+    public boolean hasErrors() { return errorCount > 0; }
+
+    public int getErrorCount() { return errorCount; }
+
+    public int getPastedCount() { return fields.length - errorCount; }
+
+    /**
+     * Number of values that were left over because there were not enough fields.
+     */
+    public int getIgnoredCount() { return ignoredCount; }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * MetricsRegistry that keeps a counter and a latency histogram for every
+ * combination of StandardType and FieldActivity.
+ * The histograms use power of two buckets, bucket i counts latencies in the
+ * range [2^(i-1), 2^i) ns.
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+    public  static final int             BUCKETS    = 40;
+    private static final int             TYPES      = StandardType.values().length;
+    private static final int             ACTIVITIES = FieldActivity.values().length;
+    private        final AtomicLongArray counts;
+    private        final AtomicLongArray totalNanos;
+    private        final AtomicLongArray histograms;
+
+
+    // ******************** Constructors **************************************
+    public SimpleMetricsRegistry() {
+        counts     = new AtomicLongArray(TYPES * ACTIVITIES);
+        totalNanos = new AtomicLongArray(TYPES * ACTIVITIES);
+        histograms = new AtomicLongArray(TYPES * ACTIVITIES * BUCKETS);
+    }
+
+
+    // ******************** Public Methods ************************************
+    @Override public void record(final StandardType type, final FieldActivity activity, final long nanos) {
+        final int index = index(type, activity);
+        counts.incrementAndGet(index);
+        totalNanos.addAndGet(index, nanos);
+        histograms.incrementAndGet(index * BUCKETS + bucket(nanos));
+    }
+
+    public long getCount(final StandardType type, final FieldActivity activity) { return counts.get(index(type, activity)); }
+    public long getCount(final FieldActivity activity) {
+        long sum = 0;
+        for (StandardType type : StandardType.values()) { sum += getCount(type, activity); }
+        return sum;
+    }
+
+    public long getTotalNanos(final StandardType type, final FieldActivity activity) { return totalNanos.get(index(type, activity)); }
+
+    /**
+     * Returns a copy of the histogram buckets for the given type and activity.
+     */
+    public long[] getHistogram(final StandardType type, final FieldActivity activity) {
+        final int    offset = index(type, activity) * BUCKETS;
+        final long[] result = new long[BUCKETS];
+        for (int i = 0 ; i < BUCKETS ; i++) { result[i] = histograms.get(offset + i); }
+        return result;
+    }
+
+    /**
+     * Returns the upper bound in ns of the bucket that contains the given
+     * percentile (0.0 - 1.0), or 0 if nothing has been recorded.
+     */
+    public long getPercentileNanos(final StandardType type, final FieldActivity activity, final double percentile) {
+        final long[] histogram = getHistogram(type, activity);
+        long total = 0;
+        for (long count : histogram) { total += count; }
+        if (total == 0) { return 0; }
+        final long rank = Math.max(1, (long) Math.ceil(Math.max(0, Math.min(1, percentile)) * total));
+        long sum = 0;
+        for (int i = 0 ; i < BUCKETS ; i++) {
+            sum += histogram[i];
+            if (sum >= rank) { return 1L << i; }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    public void reset() {
+        for (int i = 0 ; i < counts.length() ; i++) {
+            counts.set(i, 0);
+            totalNanos.set(i, 0);
+        }
+        for (int i = 0 ; i < histograms.length() ; i++) { histograms.set(i, 0); }
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private static int index(final StandardType type, final FieldActivity activity) { return type.ordinal() * ACTIVITIES + activity.ordinal(); }
+
+    private static int bucket(final long nanos) { return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos))); }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * A unit of a Dimension with its exact size in the base unit of the
+ * dimension, kept as a reduced fraction. Conversions between two units are
+ * computed once and cached, see conversionTo().
+ */
+public final class Unit {
+    public  static final Unit                      MILLIMETER = define(Dimension.LENGTH, "mm", "mm", new BigDecimal("0.001"));
+    public  static final Unit                      METER      = define(Dimension.LENGTH, "m", "m", BigDecimal.ONE);
+    public  static final Unit                      KILOMETER  = define(Dimension.LENGTH, "km", "km", BigDecimal.valueOf(1000));
+    public  static final Unit                      MONTH      = define(Dimension.TIME, "Month", "Months", BigDecimal.ONE);
+    public  static final Unit                      YEAR       = define(Dimension.TIME, "Year", "Years", BigDecimal.valueOf(12));
+    private final        Dimension                 dimension;
+    private final        String                    symbol;
+    private final        String                    pluralSymbol;
+    private final        BigInteger                numerator;
+    private final        BigInteger                denominator;
+    private final        Map<Unit, UnitConversion> conversions;
+
+
+    // ******************** Constructors **************************************
+    private Unit(final Dimension dimension, final String symbol, final String pluralSymbol, final BigInteger numerator, final BigInteger denominator) {
+        if (null == dimension) { throw new IllegalArgumentException("dimension cannot be null"); }
+        if (null == symbol)    { throw new IllegalArgumentException("symbol cannot be null"); }
+        if (numerator.signum() <= 0 || denominator.signum() <= 0) { throw new IllegalArgumentException("factor must be positive"); }
+        final BigInteger gcd = numerator.gcd(denominator);
+        this.dimension    = dimension;
+        this.symbol       = symbol;
+        this.pluralSymbol = null == pluralSymbol ? symbol : pluralSymbol;
+        this.numerator    = numerator.divide(gcd);
+        this.denominator  = denominator.divide(gcd);
+        this.conversions  = new ConcurrentHashMap<>();
+    }
+
+
+    // ******************** Public Methods ************************************
+    /**
+     * Creates a unit of the given dimension that is factor times as large as
+     * the base unit of the dimension and adds it to the units of the dimension.
+     */
+    public static Unit define(final Dimension dimension, final String symbol, final String pluralSymbol, final BigDecimal factor) {
+        final BigInteger numerator   = factor.scale() < 0 ? factor.toBigIntegerExact() : factor.unscaledValue();
+        final BigInteger denominator = factor.scale() < 0 ? BigInteger.ONE : BigInteger.TEN.pow(factor.scale());
+        return define(dimension, symbol, pluralSymbol, numerator, denominator);
+    }
+    public static Unit define(final Dimension dimension, final String symbol, final String pluralSymbol, final BigInteger numerator, final BigInteger denominator) {
+        final Unit unit = new Unit(dimension, symbol, pluralSymbol, numerator, denominator);
+        dimension.add(unit);
+        return unit;
+    }
+
+    /**
+     * Returns the unit the given StandardType stands for or null if it is
+     * not a physical unit.
+     */
+    public static Unit of(final StandardType type) {
+        switch(type) {
+            case KM    : return KILOMETER;
+            case MM    : return MILLIMETER;
+            case YEARS : return YEAR;
+            case MONTHS: return MONTH;
+            default    : return null;
+        }
+    }
+
+    public Dimension getDimension() { return dimension; }
+
+    public String getSymbol() { return symbol; }
+
+    public String getPluralSymbol() { return pluralSymbol; }
+
+    /**
+     * The size of this unit in the base unit of the dimension.
+     */
+    public BigDecimal getFactor() { return new BigDecimal(numerator).divide(new BigDecimal(denominator), MathContext.DECIMAL128); }
+
+    public boolean isConvertibleTo(final Unit unit) { return null != unit && dimension == unit.dimension; }
+
+    /**
+     * Returns the conversion of values in this unit into values in the given
+     * unit. It is created on first use and shared afterwards.
+     */
+    public UnitConversion conversionTo(final Unit unit) {
+        if (!isConvertibleTo(unit)) { throw new IllegalArgumentException("Cannot convert " + symbol + " into " + (null == unit ? null : unit.symbol)); }
+        final UnitConversion conversion = conversions.get(unit);
+        return null == conversion ? conversions.computeIfAbsent(unit, u -> new UnitConversion(this, u)) : conversion;
+    }
+
+    @Override public String toString() { return symbol; }
+
+
+    // ******************** Package Methods ***********************************
+    BigInteger getNumerator() { return numerator; }
+
+    BigInteger getDenominator() { return denominator; }
+
+    int compareFactor(final Unit unit) { return numerator.multiply(unit.denominator).compareTo(unit.numerator.multiply(denominator)); }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+
+/**
+ * Converts values from one unit into another unit of the same dimension
+ * with an exact factor that is computed once. Conversions by a power of ten
+ * only move the decimal point, all others multiply and divide unscaled longs
+ * where possible and only fall back to BigDecimal arithmetic if the result
+ * doesn't fit into a long. Results are rounded half even.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class UnitConversion {
+    private static final int        NO_SHIFT = Integer.MIN_VALUE;
+    private final        Unit       from;
+    private final        Unit       to;
+    private final        BigInteger numerator;
+    private final        BigInteger denominator;
+    private final        BigDecimal bigNumerator;
+    private final        BigDecimal bigDenominator;
+    private final        long       longNumerator;
+    private final        long       longDenominator;
+    private final        int        shift;
+
+
+    // ******************** Constructors **************************************
+    UnitConversion(final Unit from, final Unit to) {
+        // from.numerator / from.denominator * to.denominator / to.numerator
+        final BigInteger numerator   = from.getNumerator().multiply(to.getDenominator());
+        final BigInteger denominator = from.getDenominator().multiply(to.getNumerator());
+        final BigInteger gcd         = numerator.gcd(denominator);
+        this.from            = from;
+        this.to              = to;
+        this.numerator       = numerator.divide(gcd);
+        this.denominator     = denominator.divide(gcd);
+        this.bigNumerator    = new BigDecimal(this.numerator);
+        this.bigDenominator  = new BigDecimal(this.denominator);
+        this.longNumerator   = this.numerator.bitLength() < 63 ? this.numerator.longValue() : 0;
+        // the rounding doubles the remainder, so the denominator must leave one bit
+        this.longDenominator = this.denominator.bitLength() < 62 ? this.denominator.longValue() : 0;
+        if (this.denominator.equals(BigInteger.ONE)) {
+            this.shift = powerOfTen(this.numerator);
+        } else if (this.numerator.equals(BigInteger.ONE)) {
+            final int exponent = powerOfTen(this.denominator);
+            this.shift = NO_SHIFT == exponent ? NO_SHIFT : -exponent;
+        } else {
+            this.shift = NO_SHIFT;
+        }
+    }
+
+
+    // ******************** Public Methods ************************************
+    public Unit getFrom() { return from; }
+
+    public Unit getTo() { return to; }
+
+    public boolean isIdentity() { return 0 == shift; }
+
+    public UnitConversion inverse() { return to.conversionTo(from); }
+
+    /**
+     * Converts a value that is given as unscaled long, the result has the
+     * same scale. Throws an ArithmeticException if it doesn't fit into a long.
+     */
+    public long convert(final long unscaled) {
+        if (0 == shift) { return unscaled; }
+        if (0 != longNumerator && 0 != longDenominator) {
+            final long high = Math.multiplyHigh(unscaled, longNumerator);
+            final long low  = unscaled * longNumerator;
+            // the product fits into a long if the high bits are only the sign extension
+            if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+                return 1 == longDenominator ? low : FixedPointFormat.roundHalfEven(low / longDenominator, low % longDenominator, longDenominator);
+            }
+        }
+        final BigInteger[] division = BigInteger.valueOf(unscaled).multiply(numerator).divideAndRemainder(denominator);
+        final BigInteger   twice    = division[1].abs().shiftLeft(1);
+        final int          compared = twice.compareTo(denominator);
+        BigInteger         result   = division[0];
+        if (compared > 0 || (compared == 0 && result.testBit(0))) { result = result.add(BigInteger.valueOf(division[1].signum())); }
+        return result.longValueExact();
+    }
+
+    /**
+     * Converts the given value and rounds the result to the given scale.
+     */
+    public BigDecimal convert(final BigDecimal value, final int scale) {
+        if (null == value) { return null; }
+        if (NO_SHIFT != shift) { return value.movePointRight(shift).setScale(scale, RoundingMode.HALF_EVEN); }
+        if (value.scale() <= scale && value.precision() - value.scale() + scale <= FixedPointFormat.MAX_DIGITS) {
+            try {
+                return BigDecimal.valueOf(convert(value.movePointRight(scale).longValueExact()), scale);
+            } catch (ArithmeticException e) {
+                // the result doesn't fit into a long
+            }
+        }
+        return value.multiply(bigNumerator).divide(bigDenominator, scale, RoundingMode.HALF_EVEN);
+    }
+
+    @Override public String toString() { return from + " -> " + to + " (" + numerator + "/" + denominator + ")"; }
+
+
+    // ******************** Private Methods ***********************************
+    private static int powerOfTen(final BigInteger value) {
+        final String digits = value.toString();
+        if (digits.charAt(0) != '1') { return NO_SHIFT; }
+        for (int i = 1 ; i < digits.length() ; i++) {
+            if (digits.charAt(i) != '0') { return NO_SHIFT; }
+        }
+        return digits.length() - 1;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.math.BigDecimal;
+
+
+/**
+ * A committed value change of a FormattedTextField, as delivered by a
+ * ValuePublisher. The field id is the id of the field node, it can be null.
+ * The timestamp is in milliseconds since the epoch.
+ */
+public final class ValueEvent {
+    private final FormattedTextField field;
+    private final String             fieldId;
+    private final BigDecimal         oldValue;
+    private final BigDecimal         newValue;
+    private final long               timestamp;
+
+
+    // ******************** Constructors **************************************
+    ValueEvent(final FormattedTextField field, final String fieldId, final BigDecimal oldValue, final BigDecimal newValue, final long timestamp) {
+        this.field     = field;
+        this.fieldId   = fieldId;
+        this.oldValue  = oldValue;
+        this.newValue  = newValue;
+        this.timestamp = timestamp;
+    }
+
+
+    // ******************** Public Methods ************************************
+    /**
+     * The field that changed, only to be accessed on the JavaFX application thread.
+     */
+    public FormattedTextField getField() { return field; }
+
+    public String getFieldId() { return fieldId; }
+
+    public BigDecimal getOldValue() { return oldValue; }
+
+    public BigDecimal getNewValue() { return newValue; }
+
+    public long getTimestamp() { return timestamp; }
+
+    @Override public String toString() { return fieldId + ": " + oldValue + " -> " + newValue + " @ " + timestamp; }
+
+
+    // ******************** Package Methods ***********************************
+    /**
+     * Returns an event that covers this and the given later event of the same field.
+     */
+    ValueEvent merge(final ValueEvent later) {
+        return new ValueEvent(later.field, later.fieldId, oldValue, later.newValue, later.timestamp);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Coalesces high frequency value updates for many fields.
+ * publish() can be called from any thread and only keeps the latest value per
+ * field. The display text is formatted on the given executor and all pending
+ * updates are applied to their fields in one batch per pulse.
+ */
+public class ValueFeed {
+    private final Map<FormattedTextField, Update> pending;
+    private final Executor                        executor;
+    private final AnimationTimer                  timer;
+    private final LongAdder                       published;
+    private final LongAdder                       dropped;
+    private final LongAdder                       applied;
+    private final LongAdder                       batches;
+    private volatile boolean                      running;
+
+
+    // ******************** Constructors **************************************
+    public ValueFeed() {
+        this(ForkJoinPool.commonPool());
+    }
+    public ValueFeed(final Executor executor) {
+        this.pending   = new ConcurrentHashMap<>();
+        this.executor  = executor;
+        this.published = new LongAdder();
+        this.dropped   = new LongAdder();
+        this.applied   = new LongAdder();
+        this.batches   = new LongAdder();
+        this.timer     = new AnimationTimer() {
+            @Override public void handle(final long now) { applyPending(); }
+        };
+        start();
+    }
+
+
+    // ******************** Public Methods ************************************
+    public void publish(final FormattedTextField field, final BigDecimal value) {
+        final Update update = new Update(field, value, field.getTemplate());
+        published.increment();
+        if (null != pending.put(field, update)) { dropped.increment(); }
+        executor.execute(update);
+    }
+
+    public void start() {
+        running = true;
+        if (Platform.isFxApplicationThread()) {
+            timer.start();
+        } else {
+            Platform.runLater(() -> { if (running) { timer.start(); } });
+        }
+    }
+
+    public void stop() {
+        running = false;
+        if (Platform.isFxApplicationThread()) {
+            timer.stop();
+        } else {
+            Platform.runLater(() -> { if (!running) { timer.stop(); } });
+        }
+        pending.clear();
+    }
+
+    public boolean isRunning() { return running; }
+
+    public int getPendingCount() { return pending.size(); }
+
+    public long getPublishedCount() { return published.sum(); }
+
+    /**
+     * Number of updates that were replaced by a newer value for the same field
+     * before they reached the screen.
+     */
+    public long getDroppedCount() { return dropped.sum(); }
+
+    public long getAppliedCount() { return applied.sum(); }
+
+    public long getBatchCount() { return batches.sum(); }
+
+    public void resetCounters() {
+        published.reset();
+        dropped.reset();
+        applied.reset();
+        batches.reset();
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private void applyPending() {
+        if (pending.isEmpty()) { return; }
+        int count = 0;
+        for (Update update : pending.values()) {
+            if (!update.formatted) { continue; }
+            if (pending.remove(update.field, update)) {
+                update.field.applyFormattedValue(update.value, update.text, update.template);
+                count++;
+            }
+        }
+        if (count > 0) {
+            applied.add(count);
+            batches.increment();
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private final class Update implements Runnable {
+        private final    FormattedTextField field;
+        private final    BigDecimal         value;
+        private final    FieldTemplate      template;
+        private          String             text;
+        private volatile boolean            formatted;
+
+
+        private Update(final FormattedTextField field, final BigDecimal value, final FieldTemplate template) {
+            this.field    = field;
+            this.value    = value;
+            this.template = template;
+        }
+
+
+        @Override public void run() {
+            if (pending.get(field) != this) { return; }
+            text      = template.getFormatEngine().format(value);
+            formatted = true;
+        }
+    }
+}
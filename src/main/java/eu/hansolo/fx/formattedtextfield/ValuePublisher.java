@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Publishes the committed values of a FormattedTextField or of all members
+ * of a FormattedFieldGroup. Every subscriber gets the events on its own
+ * executor and decides with its Backpressure strategy what happens to events
+ * it hasn't requested yet. Publishing only queues the event and never waits
+ * for a subscriber, so it doesn't block the JavaFX application thread.
+ */
+public final class ValuePublisher implements Flow.Publisher<ValueEvent> {
+    public  static final int                            DEFAULT_BUFFER_SIZE = Flow.defaultBufferSize();
+    private final        List<ValueSubscription>        subscriptions;
+    private final        LongAdder                      published;
+    private final        LongAdder                      dropped;
+    private volatile     boolean                        closed;
+
+
+    // ******************** Constructors **************************************
+    ValuePublisher() {
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.published     = new LongAdder();
+        this.dropped       = new LongAdder();
+    }
+
+
+    // ******************** Public Methods ************************************
+    /**
+     * Subscribes with a buffer of DEFAULT_BUFFER_SIZE events, delivered on the
+     * common fork join pool.
+     */
+    @Override public void subscribe(final Flow.Subscriber<? super ValueEvent> subscriber) {
+        subscribe(subscriber, ForkJoinPool.commonPool(), Backpressure.BUFFER, DEFAULT_BUFFER_SIZE);
+    }
+    public void subscribe(final Flow.Subscriber<? super ValueEvent> subscriber, final Executor executor, final Backpressure backpressure) {
+        subscribe(subscriber, executor, backpressure, DEFAULT_BUFFER_SIZE);
+    }
+    /**
+     * Subscribes the given subscriber, all its methods are called on the given
+     * executor. The buffer size is only used by Backpressure.BUFFER.
+     */
+    public void subscribe(final Flow.Subscriber<? super ValueEvent> subscriber, final Executor executor, final Backpressure backpressure, final int bufferSize) {
+        if (null == subscriber)   { throw new NullPointerException("subscriber cannot be null"); }
+        if (null == executor)     { throw new NullPointerException("executor cannot be null"); }
+        if (null == backpressure) { throw new NullPointerException("backpressure cannot be null"); }
+        if (bufferSize < 1)       { throw new IllegalArgumentException("bufferSize must be at least 1"); }
+        final ValueSubscription subscription = new ValueSubscription(this, subscriber, executor, backpressure, bufferSize);
+        subscriptions.add(subscription);
+        if (closed) { subscription.complete(); }
+        subscription.schedule();
+    }
+
+    public boolean hasSubscribers() { return !subscriptions.isEmpty(); }
+
+    public int getSubscriberCount() { return subscriptions.size(); }
+
+    public long getPublishedCount() { return published.sum(); }
+
+    /**
+     * Number of events that have been dropped or merged into a later event
+     * over all subscribers.
+     */
+    public long getDroppedCount() { return dropped.sum(); }
+
+    public boolean isClosed() { return closed; }
+
+    /**
+     * Completes all subscribers once they received the events that are still
+     * queued for them. Events published afterwards are ignored.
+     */
+    public void close() {
+        closed = true;
+        for (ValueSubscription subscription : subscriptions) {
+            subscription.complete();
+            subscription.schedule();
+        }
+    }
+
+
+    // ******************** Package Methods ***********************************
+    void publish(final ValueEvent event) {
+        if (closed || subscriptions.isEmpty()) { return; }
+        published.increment();
+        for (ValueSubscription subscription : subscriptions) { subscription.offer(event); }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class ValueSubscription implements Flow.Subscription, Runnable {
+        private final    ValuePublisher                         publisher;
+        private final    Flow.Subscriber<? super ValueEvent>    subscriber;
+        private final    Executor                               executor;
+        private final    Backpressure                           backpressure;
+        private final    int                                    bufferSize;
+        private final    ArrayDeque<ValueEvent>                 queue;
+        private final    Map<FormattedTextField, ValueEvent>    latest;
+        private final    AtomicLong                             demand;
+        private final    AtomicInteger                          wip;
+        private volatile boolean                                cancelled;
+        private volatile boolean                                completing;
+        private volatile Throwable                              error;
+        private          boolean                                subscribed;
+        private          boolean                                done;
+
+
+        // ******************** Constructors **********************************
+        ValueSubscription(final ValuePublisher publisher, final Flow.Subscriber<? super ValueEvent> subscriber, final Executor executor, final Backpressure backpressure, final int bufferSize) {
+            this.publisher    = publisher;
+            this.subscriber   = subscriber;
+            this.executor     = executor;
+            this.backpressure = backpressure;
+            this.bufferSize   = bufferSize;
+            this.queue        = Backpressure.LATEST == backpressure ? null : new ArrayDeque<>();
+            this.latest       = Backpressure.LATEST == backpressure ? new LinkedHashMap<>() : null;
+            this.demand       = new AtomicLong();
+            this.wip          = new AtomicInteger();
+        }
+
+
+        // ******************** Methods ***************************************
+        @Override public void request(final long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("non-positive subscription request: " + n);
+            } else {
+                demand.accumulateAndGet(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            }
+            schedule();
+        }
+
+        @Override public void cancel() {
+            cancelled = true;
+            publisher.subscriptions.remove(this);
+            clear();
+        }
+
+        void offer(final ValueEvent event) {
+            if (cancelled || completing) { return; }
+            synchronized (this) {
+                switch (backpressure) {
+                    case LATEST:
+                        final ValueEvent pending = latest.get(event.getField());
+                        if (null != pending) { publisher.dropped.increment(); }
+                        latest.put(event.getField(), null == pending ? event : pending.merge(event));
+                        break;
+                    case DROP:
+                        if (queue.size() >= demand.get()) {
+                            publisher.dropped.increment();
+                            return;
+                        }
+                        queue.addLast(event);
+                        break;
+                    case BUFFER:
+                    default:
+                        if (queue.size() >= bufferSize) {
+                            queue.pollFirst();
+                            publisher.dropped.increment();
+                        }
+                        queue.addLast(event);
+                        break;
+                }
+            }
+            schedule();
+        }
+
+        void complete() { completing = true; }
+
+        /**
+         * Runs the delivery on the executor unless it is running already, in
+         * which case it picks up the new work before it ends.
+         */
+        void schedule() {
+            if (wip.getAndIncrement() != 0) { return; }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                cancel();
+            }
+        }
+
+        @Override public void run() {
+            int missed = 1;
+            do {
+                if (!done) { deliver(); }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+
+        // ******************** Private Methods *******************************
+        private void deliver() {
+            try {
+                if (!subscribed) {
+                    subscribed = true;
+                    subscriber.onSubscribe(this);
+                }
+                if (null != error) {
+                    done = true;
+                    cancel();
+                    subscriber.onError(error);
+                    return;
+                }
+                final long requested = demand.get();
+                long       delivered = 0;
+                while (!cancelled && delivered < requested) {
+                    final ValueEvent event = poll();
+                    if (null == event) { break; }
+                    subscriber.onNext(event);
+                    delivered++;
+                }
+                if (delivered > 0 && requested != Long.MAX_VALUE) { demand.addAndGet(-delivered); }
+                if (cancelled) {
+                    done = true;
+                } else if (completing && isEmpty()) {
+                    done = true;
+                    cancel();
+                    subscriber.onComplete();
+                }
+            } catch (RuntimeException e) {
+                // a subscriber that throws is cancelled
+                done = true;
+                cancel();
+            }
+        }
+
+        private synchronized ValueEvent poll() {
+            if (null != queue) { return queue.pollFirst(); }
+            final Iterator<ValueEvent> iterator = latest.values().iterator();
+            if (!iterator.hasNext()) { return null; }
+            final ValueEvent event = iterator.next();
+            iterator.remove();
+            return event;
+        }
+
+        private synchronized boolean isEmpty() { return null != queue ? queue.isEmpty() : latest.isEmpty(); }
+
+        private synchronized void clear() {
+            if (null != queue) {
+                queue.clear();
+            } else {
+                latest.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import javafx.animation.AnimationTimer;
+import javafx.event.EventHandler;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.ScrollEvent;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+
+/**
+ * Steps the value of a FormattedTextField with the Up/Down and PageUp/PageDown
+ * keys and the scroll wheel. The value, step and bounds are unscaled longs
+ * with the decimals of the field as scale. Steps that arrive within one pulse
+ * are summed up and applied once in the next pulse, holding a key down
+ * increases the step after every ACCELERATION_REPEATS key repeats.
+ * Created when stepping is switched on.
+ */
+final class ValueStepper {
+    private static final int[]                     ACCELERATION         = { 1, 2, 5, 10, 20, 50, 100 };
+    private static final int                       ACCELERATION_REPEATS = 10;
+    private final        FormattedTextField        field;
+    private final        AnimationTimer            timer;
+    private final        EventHandler<KeyEvent>    keyPressedHandler;
+    private final        EventHandler<KeyEvent>    keyReleasedHandler;
+    private final        EventHandler<ScrollEvent> scrollHandler;
+    private              BigDecimal                step;
+    private              BigDecimal                pageStep;
+    private              BigDecimal                min;
+    private              BigDecimal                max;
+    private              boolean                   accelerated;
+    private              FieldTemplate             boundsTemplate;
+    private              long                      stepUnscaled;
+    private              long                      pageStepUnscaled;
+    private              long                      minUnscaled;
+    private              long                      maxUnscaled;
+    private              long                      pendingDelta;
+    private              BigDecimal                lastValue;
+    private              long                      lastUnscaled;
+    private              KeyCode                   heldKey;
+    private              int                       repeats;
+
+
+    // ******************** Constructors **************************************
+    ValueStepper(final FormattedTextField field) {
+        this.field              = field;
+        this.accelerated        = true;
+        this.timer              = new AnimationTimer() {
+            @Override public void handle(final long now) {
+                stop();
+                applyPending();
+            }
+        };
+        this.keyPressedHandler  = this::keyPressed;
+        this.keyReleasedHandler = e -> heldKey = null;
+        this.scrollHandler      = this::scrolled;
+
+        field.addEventFilter(KeyEvent.KEY_PRESSED, keyPressedHandler);
+        field.addEventFilter(KeyEvent.KEY_RELEASED, keyReleasedHandler);
+        field.addEventHandler(ScrollEvent.SCROLL, scrollHandler);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Removes the handlers and drops pending steps.
+     */
+    void dispose() {
+        timer.stop();
+        pendingDelta = 0;
+        field.removeEventFilter(KeyEvent.KEY_PRESSED, keyPressedHandler);
+        field.removeEventFilter(KeyEvent.KEY_RELEASED, keyReleasedHandler);
+        field.removeEventHandler(ScrollEvent.SCROLL, scrollHandler);
+    }
+
+    BigDecimal getStep() { return null == step ? BigDecimal.ONE.movePointLeft(field.getDecimals()) : step; }
+    void setStep(final BigDecimal step) {
+        this.step      = null == step ? null : step.abs();
+        boundsTemplate = null;
+    }
+
+    BigDecimal getPageStep() { return null == pageStep ? getStep().movePointRight(1) : pageStep; }
+    void setPageStep(final BigDecimal pageStep) {
+        this.pageStep  = null == pageStep ? null : pageStep.abs();
+        boundsTemplate = null;
+    }
+
+    BigDecimal getMin() { return min; }
+    void setMin(final BigDecimal min) {
+        this.min       = min;
+        boundsTemplate = null;
+    }
+
+    BigDecimal getMax() { return max; }
+    void setMax(final BigDecimal max) {
+        this.max       = max;
+        boundsTemplate = null;
+    }
+
+    boolean isAccelerated() { return accelerated; }
+    void setAccelerated(final boolean accelerated) { this.accelerated = accelerated; }
+
+    /**
+     * Applies the given number of steps right away, pending steps included.
+     */
+    void step(final int steps, final boolean page) {
+        accumulate(steps, page);
+        timer.stop();
+        applyPending();
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private void keyPressed(final KeyEvent event) {
+        if (!field.isEditable() || event.isShortcutDown() || event.isAltDown()) { return; }
+        final KeyCode code = event.getCode();
+        final int     direction;
+        final boolean page;
+        switch (code) {
+            case UP       : direction =  1; page = false; break;
+            case DOWN     : direction = -1; page = false; break;
+            case PAGE_UP  : direction =  1; page = true;  break;
+            case PAGE_DOWN: direction = -1; page = true;  break;
+            default       : return;
+        }
+        // KEY_PRESSED events without KEY_RELEASED in between are key repeats
+        repeats = code == heldKey ? repeats + 1 : 0;
+        heldKey = code;
+        final int factor = accelerated ? ACCELERATION[Math.min(repeats / ACCELERATION_REPEATS, ACCELERATION.length - 1)] : 1;
+        schedule(direction * factor, page);
+        event.consume();
+    }
+
+    private void scrolled(final ScrollEvent event) {
+        // some platforms turn the wheel into a horizontal scroll while shift is down
+        final double delta = 0 != event.getDeltaY() ? event.getDeltaY() : event.getDeltaX();
+        if (!field.isFocused() || !field.isEditable() || 0 == delta) { return; }
+        schedule(delta > 0 ? 1 : -1, event.isShiftDown());
+        event.consume();
+    }
+
+    private void schedule(final int steps, final boolean page) {
+        accumulate(steps, page);
+        timer.start();
+    }
+
+    private void accumulate(final int steps, final boolean page) {
+        updateBounds();
+        final long size  = page ? pageStepUnscaled : stepUnscaled;
+        final long delta = Math.abs(steps) > Long.MAX_VALUE / size ? (steps > 0 ? Long.MAX_VALUE : -Long.MAX_VALUE) : steps * size;
+        // a sum that would overflow is out of any bounds anyway
+        pendingDelta = saturatedAdd(pendingDelta, delta, -Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    private void applyPending() {
+        final long delta = pendingDelta;
+        pendingDelta = 0;
+        if (0 == delta) { return; }
+        // the decimals or bounds of the field changed since the steps were scheduled
+        if (field.getTemplate() != boundsTemplate) { return; }
+        final int decimals = field.getDecimals();
+        field.prepareStep();
+        if (field.isFixedPoint()) {
+            field.commitEditUnscaled(saturatedAdd(field.hasValue() ? field.getUnscaledValue() : 0, delta, minUnscaled, maxUnscaled));
+            return;
+        }
+        final BigDecimal value = field.getValue();
+        if (null == value || value.scale() <= decimals && value.precision() - value.scale() + decimals <= FixedPointFormat.MAX_DIGITS) {
+            // the value that has been stepped to last doesn't have to be converted again
+            final long unscaled = null == value ? 0 : value == lastValue ? lastUnscaled : value.movePointRight(decimals).longValueExact();
+            lastUnscaled = saturatedAdd(unscaled, delta, minUnscaled, maxUnscaled);
+            lastValue    = FixedPointFormat.toBigDecimal(lastUnscaled, decimals);
+            field.commitEditValue(lastValue);
+        } else {
+            // values with more digits than a long can hold or more decimals than the field shows
+            final BigDecimal limit   = BigDecimal.ONE.movePointRight(field.getPreDecimals()).subtract(BigDecimal.ONE.movePointLeft(decimals));
+            BigDecimal       stepped = value.add(BigDecimal.valueOf(delta, decimals));
+            if (stepped.compareTo(limit) > 0) { stepped = limit; }
+            if (stepped.compareTo(limit.negate()) < 0) { stepped = limit.negate(); }
+            if (null != min && stepped.compareTo(min) < 0) { stepped = min; }
+            if (null != max && stepped.compareTo(max) > 0) { stepped = max; }
+            field.commitEditValue(stepped);
+        }
+    }
+
+    /**
+     * Converts step and bounds to unscaled longs, only after they or the
+     * template of the field changed, which holds the decimals, the
+     * predecimals and whether negative numbers are allowed.
+     */
+    private void updateBounds() {
+        final FieldTemplate template = field.getTemplate();
+        if (template == boundsTemplate) { return; }
+        final int  decimals    = template.getDecimals();
+        final int  preDecimals = template.getPreDecimals();
+        final long limit       = FixedPointFormat.fits(preDecimals, decimals) ? FixedPointFormat.pow10(preDecimals + decimals) - 1 : Long.MAX_VALUE;
+        stepUnscaled     = Math.max(1, toUnscaled(getStep(), decimals, RoundingMode.HALF_EVEN, limit));
+        pageStepUnscaled = Math.max(1, toUnscaled(getPageStep(), decimals, RoundingMode.HALF_EVEN, limit));
+        minUnscaled      = template.getNegativeNumbersAllowed() ? -limit : 0;
+        maxUnscaled      = limit;
+        if (null != min) { minUnscaled = Math.max(minUnscaled, toUnscaled(min, decimals, RoundingMode.CEILING, limit)); }
+        if (null != max) { maxUnscaled = Math.min(maxUnscaled, toUnscaled(max, decimals, RoundingMode.FLOOR, limit)); }
+        if (maxUnscaled < minUnscaled) { maxUnscaled = minUnscaled; }
+        boundsTemplate = template;
+    }
+
+    private static long saturatedAdd(final long value, final long delta, final long min, final long max) {
+        final long sum;
+        if (delta > 0) {
+            sum = value > max - delta ? max : value + delta;
+        } else {
+            sum = value < min - delta ? min : value + delta;
+        }
+        return Math.max(min, Math.min(max, sum));
+    }
+
+    private static long toUnscaled(final BigDecimal value, final int decimals, final RoundingMode rounding, final long limit) {
+        final BigDecimal unscaled = value.setScale(decimals, rounding).movePointRight(decimals);
+        if (unscaled.compareTo(BigDecimal.valueOf(limit)) > 0)  { return limit; }
+        if (unscaled.compareTo(BigDecimal.valueOf(-limit)) < 0) { return -limit; }
+        return unscaled.longValue();
+    }
+}
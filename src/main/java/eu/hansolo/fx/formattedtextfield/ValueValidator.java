@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2020 by Gerrit Grunwald
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.hansolo.fx.formattedtextfield;
+
+import java.math.BigDecimal;
+
+
+/**
+ * Checks the value of a FormattedTextField. Validators are called on the
+ * validation executor of the field and not on the JavaFX application thread,
+ * so they must not access the scene graph. Everything they need from other
+ * fields has to be captured before, e.g. in a property that triggers
+ * revalidate() on change.
+ */
+@FunctionalInterface
+public interface ValueValidator {
+
+    /**
+     * Returns null if the given value is valid, otherwise a message that
+     * describes the problem. The value is null if the field is empty.
+     * An exception marks the value as invalid with the exception message.
+     */
+    String validate(BigDecimal value) throws Exception;
+
+
+    /**
+     * Accepts empty fields and values between min and max (both inclusive),
+     * a null bound is not checked.
+     */
+    static ValueValidator range(final BigDecimal min, final BigDecimal max) {
+        return value -> {
+            if (null == value) { return null; }
+            if (null != min && value.compareTo(min) < 0) { return "Value must not be less than " + min.toPlainString(); }
+            if (null != max && value.compareTo(max) > 0) { return "Value must not be greater than " + max.toPlainString(); }
+            return null;
+        };
+    }
+
+    static ValueValidator required() {
+        return value -> null == value ? "Value is required" : null;
+    }
+}
@@ -2,6 +2,7 @@ module formattedtextfield {
 
     // Java
     requires java.base;
+    requires jdk.jfr;
 
     // Java-FX
     requires javafx.base;